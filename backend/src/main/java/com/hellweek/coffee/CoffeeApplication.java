@@ -2,8 +2,10 @@ package com.hellweek.coffee;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CoffeeApplication {
     public static void main(String[] args) {
         SpringApplication.run(CoffeeApplication.class, args);
@@ -0,0 +1,42 @@
+package com.hellweek.coffee.config;
+
+import com.hellweek.coffee.service.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} from
+ * the session the token was issued with. Requests without a live token pass
+ * through unauthenticated and are turned away by the authorization rules.
+ */
+@RequiredArgsConstructor
+public class SessionTokenFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    private final SessionTokenService sessionTokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            Authentication authentication = sessionTokenService.authenticate(header.substring(BEARER.length()));
+            if (authentication != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -1,23 +1,51 @@
 package com.hellweek.coffee.controller;
 
 import com.hellweek.coffee.dto.LoginRequest;
+import com.hellweek.coffee.dto.LoginResponse;
 import com.hellweek.coffee.dto.UserRequest;
 import com.hellweek.coffee.model.User;
 import com.hellweek.coffee.service.AuthService;
+import com.hellweek.coffee.service.SessionTokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class AuthController {
+    private static final String BEARER = "Bearer ";
+
     private final AuthService authService;
+    private final SessionTokenService sessionTokenService;
 
+    /**
+     * Checks the password once and returns a bearer token for the requests
+     * that follow.
+     */
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.authenticate(request));
+    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
+        long generation = sessionTokenService.generation();
+        User user = authService.authenticate(request);
+        SessionTokenService.Session session = sessionTokenService.issue(user, generation);
+        return ResponseEntity.ok(new LoginResponse(session.getToken(), Instant.ofEpochMilli(session.getExpiresAt()), user));
+    }
+
+    /**
+     * Ends the session of a bearer token. Answers 204 whether or not there
+     * was one to end.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization != null && authorization.startsWith(BEARER)) {
+            sessionTokenService.revoke(authorization.substring(BEARER.length()));
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/users")
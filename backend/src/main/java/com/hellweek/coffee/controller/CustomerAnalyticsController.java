@@ -2,6 +2,7 @@ package com.hellweek.coffee.controller;
 
 import com.hellweek.coffee.dto.CustomerAnalytics;
 import com.hellweek.coffee.service.CustomerAnalyticsService;
+import com.hellweek.coffee.service.CustomerProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,12 +16,20 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class CustomerAnalyticsController {
     private final CustomerAnalyticsService analyticsService;
+    private final CustomerProfileService customerProfileService;
 
     @GetMapping("/{customerId}")
     public ResponseEntity<CustomerAnalytics> getCustomerAnalytics(@PathVariable Long customerId) {
         return ResponseEntity.ok(analyticsService.generateCustomerAnalytics(customerId));
     }
 
+    @GetMapping("/{customerId}/consistency")
+    public ResponseEntity<Map<String, Object>> checkProfileConsistency(
+            @PathVariable Long customerId,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(customerProfileService.checkConsistency(customerId, repair));
+    }
+
     @GetMapping("/tiers/{tier}/benefits")
     public ResponseEntity<Map<String, Object>> getTierBenefits(@PathVariable String tier) {
         Map<String, Object> benefits = new HashMap<>();
@@ -3,17 +3,21 @@ package com.hellweek.coffee.controller;
 import com.hellweek.coffee.dto.CustomerRequest;
 import com.hellweek.coffee.model.Customer;
 import com.hellweek.coffee.service.CustomerService;
+import com.hellweek.coffee.service.GuestCompactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/customers")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class CustomerController {
     private final CustomerService customerService;
+    private final GuestCompactionService guestCompactionService;
 
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@Valid @RequestBody CustomerRequest request) {
@@ -25,6 +29,12 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.createGuestCustomer(firstName));
     }
 
+    @PostMapping("/guests/compact")
+    public ResponseEntity<Map<String, Object>> compactGuests(
+            @RequestParam(defaultValue = "" + GuestCompactionService.DEFAULT_BATCH_SIZE) int batchSize) {
+        return ResponseEntity.ok(guestCompactionService.compact(batchSize));
+    }
+
     @GetMapping("/{membershipId}")
     public ResponseEntity<Customer> getCustomer(@PathVariable String membershipId) {
         return ResponseEntity.ok(customerService.getCustomerByMembershipId(membershipId));
@@ -0,0 +1,23 @@
+package com.hellweek.coffee.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Responses for pre-encoded JSON bodies with an ETag. Clients revalidate
+ * every time, and Spring answers 304 itself when If-None-Match carries the
+ * ETag.
+ */
+final class ETaggedJson {
+    private ETaggedJson() {
+    }
+
+    static ResponseEntity<byte[]> ok(byte[] body, String etag) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+}
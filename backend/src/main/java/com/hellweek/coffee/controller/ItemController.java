@@ -3,20 +3,20 @@ package com.hellweek.coffee.controller;
 import com.hellweek.coffee.dto.ItemRequest;
 import com.hellweek.coffee.model.Item;
 import com.hellweek.coffee.model.ItemType;
+import com.hellweek.coffee.service.ItemListingService;
 import com.hellweek.coffee.service.ItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/items")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemListingService itemListingService;
 
     @PostMapping
     public ResponseEntity<Item> createItem(@Valid @RequestBody ItemRequest request) {
@@ -24,10 +24,11 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems(
+    public ResponseEntity<byte[]> getAllItems(
             @RequestParam(required = false) Boolean active,
             @RequestParam(required = false) String categoryId) {
-        return ResponseEntity.ok(itemService.getAllItems(active, categoryId));
+        return listing(itemListingService.get("all:" + active + ":" + categoryId,
+            () -> itemService.getAllItems(active, categoryId)));
     }
 
     @GetMapping("/{code}")
@@ -49,7 +50,11 @@ public class ItemController {
     }
 
     @GetMapping("/by-type/{type}")
-    public ResponseEntity<List<Item>> getItemsByType(@PathVariable ItemType type) {
-        return ResponseEntity.ok(itemService.getItemsByType(type));
+    public ResponseEntity<byte[]> getItemsByType(@PathVariable ItemType type) {
+        return listing(itemListingService.get("type:" + type, () -> itemService.getItemsByType(type)));
+    }
+
+    private ResponseEntity<byte[]> listing(ItemListingService.Listing listing) {
+        return ETaggedJson.ok(listing.getBody(), listing.getEtag());
     }
 }
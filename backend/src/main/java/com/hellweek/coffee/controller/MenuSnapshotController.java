@@ -0,0 +1,28 @@
+package com.hellweek.coffee.controller;
+
+import com.hellweek.coffee.service.MenuSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/menu/snapshot")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MenuSnapshotController {
+    private final MenuSnapshotService menuSnapshotService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(menuSnapshotService.getStats());
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        menuSnapshotService.invalidate();
+        menuSnapshotService.rebuild();
+        return ResponseEntity.ok(menuSnapshotService.getStats());
+    }
+}
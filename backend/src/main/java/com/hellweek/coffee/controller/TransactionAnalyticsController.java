@@ -1,6 +1,13 @@
 package com.hellweek.coffee.controller;
 
+import com.hellweek.coffee.dto.TransactionAnalytics;
+import com.hellweek.coffee.model.PaymentMethod;
+import com.hellweek.coffee.service.DailyReportCache;
+import com.hellweek.coffee.service.RangeReportService;
+import com.hellweek.coffee.service.SalesColumnStore;
+import com.hellweek.coffee.service.SalesRollupService;
 import com.hellweek.coffee.service.TransactionAnalyticsService;
+import com.hellweek.coffee.service.UniqueCustomerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -15,11 +22,103 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class TransactionAnalyticsController {
     private final TransactionAnalyticsService analyticsService;
+    private final SalesRollupService salesRollupService;
+    private final RangeReportService rangeReportService;
+    private final SalesColumnStore salesColumnStore;
+    private final UniqueCustomerService uniqueCustomerService;
+    private final DailyReportCache dailyReportCache;
 
     @GetMapping("/daily")
-    public ResponseEntity<Map<String, Object>> getDailySalesReport(
+    public ResponseEntity<byte[]> getDailySalesReport(
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date
     ) {
-        return ResponseEntity.ok(analyticsService.generateDailySalesReport(date));
+        DailyReportCache.Report report = dailyReportCache.get(date.toLocalDate());
+        return ETaggedJson.ok(report.getBody(), report.getEtag());
+    }
+
+    @GetMapping("/daily/cache")
+    public ResponseEntity<Map<String, Object>> getDailyReportCacheStats() {
+        return ResponseEntity.ok(dailyReportCache.getStats());
+    }
+
+    /**
+     * Drops cached daily reports overlapping [start, end), or all of them
+     * without a range, after a late correction to their transactions.
+     */
+    @PostMapping("/daily/cache/invalidate")
+    public ResponseEntity<Map<String, Object>> invalidateDailyReports(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return ResponseEntity.ok(dailyReportCache.invalidate(start, end));
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<Map<String, Object>> getSalesReport(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return ResponseEntity.ok(analyticsService.generateSalesReport(start, end));
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<TransactionAnalytics> getRangeReport(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return ResponseEntity.ok(rangeReportService.generateReport(start, end));
+    }
+
+    @GetMapping("/customers/unique")
+    public ResponseEntity<Map<String, Object>> getUniqueCustomers(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return ResponseEntity.ok(uniqueCustomerService.estimate(start, end));
+    }
+
+    @PostMapping("/customers/unique/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildUniqueCustomers(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        Map<String, Object> result = uniqueCustomerService.rebuild(start, end);
+        dailyReportCache.invalidate(start, end);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/slices")
+    public ResponseEntity<Map<String, Object>> getSlice(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+        @RequestParam(defaultValue = "HOUR") SalesColumnStore.Dimension groupBy,
+        @RequestParam(required = false) PaymentMethod paymentMethod,
+        @RequestParam(required = false) Long cashierId,
+        @RequestParam(required = false) Long menuItemId
+    ) {
+        return ResponseEntity.ok(salesColumnStore.slice(start, end, groupBy, paymentMethod, cashierId, menuItemId));
+    }
+
+    @GetMapping("/slices/stats")
+    public ResponseEntity<Map<String, Object>> getSliceStats() {
+        return ResponseEntity.ok(salesColumnStore.getStats());
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        Map<String, Object> result = salesRollupService.rebuild(start, end);
+        dailyReportCache.invalidate(start, end);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/rollups/verify")
+    public ResponseEntity<Map<String, Object>> verifyRollups(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return ResponseEntity.ok(salesRollupService.verify(start, end));
     }
 }
@@ -1,40 +1,94 @@
 package com.hellweek.coffee.controller;
 
+import com.hellweek.coffee.dto.CursorPage;
 import com.hellweek.coffee.dto.TransactionRequest;
 import com.hellweek.coffee.model.Transaction;
 import com.hellweek.coffee.model.User;
+import com.hellweek.coffee.service.IdempotencyService;
+import com.hellweek.coffee.service.TicketStreamService;
 import com.hellweek.coffee.service.TransactionService;
+import com.hellweek.coffee.service.TransactionSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.InputStream;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final TicketStreamService ticketStreamService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionSyncService transactionSyncService;
 
     @PostMapping
     public ResponseEntity<Transaction> createTransaction(
         @Valid @RequestBody TransactionRequest request,
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
         @AuthenticationPrincipal User user
     ) {
-        Transaction transaction = transactionService.createTransaction(request, user);
+        Transaction transaction = idempotencyKey == null
+            ? transactionService.createTransaction(request, user)
+            : idempotencyService.createTransaction(idempotencyKey, request, user);
         return ResponseEntity.ok(transaction);
     }
 
+    /**
+     * Bulk upload for registers coming back online: a JSON array of
+     * transaction requests, each with the {@code orderedAt} time the register
+     * took it, read as it arrives. Records that fail are listed by index; the
+     * others are saved completed.
+     */
+    @PostMapping(path = "/sync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> syncTransactions(
+        InputStream body,
+        @AuthenticationPrincipal User user
+    ) {
+        Map<String, Object> result = transactionSyncService.sync(body, user);
+        return result.containsKey("aborted") ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+    }
+
     @GetMapping("/pending")
-    public ResponseEntity<List<Transaction>> getPendingTransactions() {
-        return ResponseEntity.ok(transactionService.getPendingTransactions());
+    public ResponseEntity<CursorPage<Transaction>> getPendingTransactions(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(transactionService.getPendingTransactions(cursor, size));
+    }
+
+    /**
+     * Pushes ticket changes as they happen. Reconnecting browsers send
+     * Last-Event-ID automatically and resume where they left off.
+     */
+    @GetMapping(path = "/tickets/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTickets(
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return ResponseEntity.ok(ticketStreamService.subscribe(lastEventId));
     }
 
     @GetMapping("/completed")
-    public ResponseEntity<List<Transaction>> getCompletedTransactions() {
-        return ResponseEntity.ok(transactionService.getCompletedTransactions());
+    public ResponseEntity<CursorPage<Transaction>> getCompletedTransactions(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(transactionService.getCompletedTransactions(cursor, size));
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<CursorPage<Transaction>> getCustomerHistory(
+        @PathVariable Long customerId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(transactionService.getCustomerHistory(customerId, cursor, size));
     }
 
     @PostMapping("/{id}/complete")
@@ -0,0 +1,22 @@
+package com.hellweek.coffee.controller;
+
+import com.hellweek.coffee.service.TrendingItemsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/menu/trending")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TrendingItemsController {
+    private final TrendingItemsService trendingItemsService;
+
+    @GetMapping
+    public ResponseEntity<TrendingItemsService.Trending> getTrending(
+        @RequestParam(defaultValue = "15") int minutes,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(trendingItemsService.getTrending(minutes, limit));
+    }
+}
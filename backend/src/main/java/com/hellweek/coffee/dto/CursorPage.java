@@ -0,0 +1,17 @@
+package com.hellweek.coffee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back to get
+ * the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.hellweek.coffee.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Who a completed transaction was for: the member's customer id, or for a
+ * guest the name given at the register.
+ */
+@Value
+public class CustomerVisitRow {
+    LocalDateTime transactionDate;
+    Long customerId;
+    boolean member;
+    String customerName;
+}
@@ -0,0 +1,10 @@
+package com.hellweek.coffee.dto;
+
+import lombok.Value;
+
+@Value
+public class CustomizationSetRow {
+    String itemCode;
+    Long signature;
+    long quantity;
+}
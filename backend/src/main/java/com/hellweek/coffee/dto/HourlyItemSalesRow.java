@@ -0,0 +1,15 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.PaymentMethod;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class HourlyItemSalesRow {
+    LocalDateTime bucketHour;
+    Long menuItemId;
+    PaymentMethod paymentMethod;
+    long quantity;
+    long revenueCentavos;
+}
@@ -0,0 +1,14 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.PaymentMethod;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class HourlySalesRow {
+    LocalDateTime bucketHour;
+    PaymentMethod paymentMethod;
+    long transactionCount;
+    long revenueCentavos;
+}
@@ -0,0 +1,9 @@
+package com.hellweek.coffee.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemCustomizationRow {
+    String itemCode;
+    Long customizationId;
+}
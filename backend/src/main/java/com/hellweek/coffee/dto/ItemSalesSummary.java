@@ -0,0 +1,8 @@
+package com.hellweek.coffee.dto;
+
+public interface ItemSalesSummary {
+    Long getMenuItemId();
+    String getName();
+    Long getQuantity();
+    Long getRevenueCentavos();
+}
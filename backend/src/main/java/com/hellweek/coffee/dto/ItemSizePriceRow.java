@@ -0,0 +1,10 @@
+package com.hellweek.coffee.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemSizePriceRow {
+    String itemCode;
+    String size;
+    Double price;
+}
@@ -0,0 +1,51 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.Customization;
+import com.hellweek.coffee.model.ItemType;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-side shape of an item in the menu listings, with the same JSON as the
+ * entity but assembled from a fixed set of queries instead of lazy loads.
+ */
+@Value
+public class ItemView {
+    String code;
+    String name;
+    CategoryView category;
+    Double basePrice;
+    Map<String, Double> sizePrices;
+    List<CustomizationView> availableCustomizations;
+    ItemType type;
+    String description;
+    boolean active;
+
+    @Value
+    public static class CategoryView {
+        String id;
+        String name;
+        String description;
+        boolean active;
+        ItemType itemType;
+        long itemCount;
+    }
+
+    @Value
+    public static class CustomizationView {
+        Long id;
+        String name;
+        String description;
+        Customization.ItemType applicableType;
+        List<OptionView> options;
+    }
+
+    @Value
+    public static class OptionView {
+        Long id;
+        String name;
+        Double price;
+    }
+}
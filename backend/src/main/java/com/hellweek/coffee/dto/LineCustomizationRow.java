@@ -0,0 +1,9 @@
+package com.hellweek.coffee.dto;
+
+import lombok.Value;
+
+@Value
+public class LineCustomizationRow {
+    Long orderItemId;
+    String customization;
+}
@@ -0,0 +1,17 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.User;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A signed-in user and the bearer token to send as
+ * {@code Authorization: Bearer <token>} until {@code expiresAt}.
+ */
+@Value
+public class LoginResponse {
+    String token;
+    Instant expiresAt;
+    User user;
+}
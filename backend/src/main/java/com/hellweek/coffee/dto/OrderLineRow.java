@@ -0,0 +1,24 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.PaymentMethod;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order line of a completed transaction, flattened with its transaction
+ * header. Item fields are null for a transaction without lines.
+ */
+@Value
+public class OrderLineRow {
+    Long transactionId;
+    LocalDateTime transactionDate;
+    double transactionTotal;
+    PaymentMethod paymentMethod;
+    String itemCode;
+    String itemName;
+    String category;
+    String size;
+    Integer quantity;
+    Double unitPrice;
+}
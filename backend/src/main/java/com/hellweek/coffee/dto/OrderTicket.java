@@ -0,0 +1,60 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.OrderItem;
+import com.hellweek.coffee.model.Transaction;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * What a barista screen shows for one order. Completion tickets carry only
+ * the id and status, since the screen just drops the order.
+ */
+@Data
+public class OrderTicket {
+    private Long transactionId;
+    private String status;
+    private String customerName;
+    private LocalDateTime orderedAt;
+    private List<TicketLine> items;
+
+    @Data
+    public static class TicketLine {
+        private String itemName;
+        private String size;
+        private int quantity;
+        private List<String> customizations;
+        private String notes;
+    }
+
+    public static OrderTicket of(Transaction transaction, Function<OrderItem, String> itemName) {
+        OrderTicket ticket = new OrderTicket();
+        ticket.setTransactionId(transaction.getId());
+        ticket.setStatus(transaction.getStatus());
+        ticket.setCustomerName(transaction.getCustomerName());
+        ticket.setOrderedAt(transaction.getTransactionDate());
+
+        List<TicketLine> lines = new ArrayList<>();
+        for (OrderItem item : transaction.getItems()) {
+            TicketLine line = new TicketLine();
+            line.setItemName(itemName.apply(item));
+            line.setSize(item.getSize());
+            line.setQuantity(item.getQuantity());
+            line.setCustomizations(new ArrayList<>(item.getCustomizations()));
+            line.setNotes(item.getNotes());
+            lines.add(line);
+        }
+        ticket.setItems(lines);
+        return ticket;
+    }
+
+    public static OrderTicket completed(Transaction transaction) {
+        OrderTicket ticket = new OrderTicket();
+        ticket.setTransactionId(transaction.getId());
+        ticket.setStatus(transaction.getStatus());
+        return ticket;
+    }
+}
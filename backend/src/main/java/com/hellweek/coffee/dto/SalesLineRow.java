@@ -0,0 +1,22 @@
+package com.hellweek.coffee.dto;
+
+import com.hellweek.coffee.model.PaymentMethod;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order line of a completed transaction with the header fields sales are
+ * sliced by. Line fields are null for a transaction without lines.
+ */
+@Value
+public class SalesLineRow {
+    Long transactionId;
+    LocalDateTime transactionDate;
+    double transactionTotal;
+    PaymentMethod paymentMethod;
+    Long cashierId;
+    Long menuItemId;
+    Integer quantity;
+    Double unitPrice;
+}
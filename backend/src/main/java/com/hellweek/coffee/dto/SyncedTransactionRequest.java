@@ -0,0 +1,17 @@
+package com.hellweek.coffee.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import java.time.LocalDateTime;
+
+/**
+ * An order a register took while offline, with the register's local time of
+ * the order, which becomes the transaction date.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class SyncedTransactionRequest extends TransactionRequest {
+    @NotNull(message = "Order time is required")
+    private LocalDateTime orderedAt;
+}
@@ -15,6 +15,7 @@ public class TransactionAnalytics {
     private List<ItemSalesData> topSellingItems;
     private Map<String, Integer> salesByCategory;
     private Map<String, Integer> salesByPaymentMethod;
+    private Map<Integer, Double> revenueByHour;
     private List<CustomizationData> popularCustomizations;
 
     @Data
@@ -0,0 +1,18 @@
+package com.hellweek.coffee.model;
+
+/**
+ * Converts between peso amounts, which prices are stored and shown as, and
+ * whole centavos, which they are added up in so sums come out exact.
+ */
+public final class Centavos {
+    private Centavos() {
+    }
+
+    public static long of(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static double toAmount(long centavos) {
+        return centavos / 100.0;
+    }
+}
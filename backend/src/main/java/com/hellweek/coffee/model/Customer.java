@@ -1,5 +1,7 @@
 package com.hellweek.coffee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -12,6 +14,7 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "customers")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,9 +40,19 @@ public class Customer {
     @Column(name = "is_member")
     private boolean isMember = false;
 
+    // The single row every guest order points at; the guest's name is kept on the transaction
+    @Column(name = "shared_guest", nullable = false, columnDefinition = "boolean default false")
+    private boolean sharedGuest = false;
+
+    // Set only on the shared guest, so the unique index lets one row hold it
+    @JsonIgnore
+    @Column(name = "shared_guest_slot", unique = true)
+    private Integer sharedGuestSlot;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "customer")
     private List<Transaction> transactions;
 
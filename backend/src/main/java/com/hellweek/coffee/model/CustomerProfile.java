@@ -0,0 +1,56 @@
+package com.hellweek.coffee.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Entity
+@Table(name = "customer_profiles")
+public class CustomerProfile {
+    @Id
+    private Long customerId;
+
+    @Column(nullable = false)
+    private int visitCount;
+
+    @Column(nullable = false)
+    private double totalSpent;
+
+    @Column(nullable = false)
+    private int loyaltyPoints;
+
+    private LocalDateTime lastVisit;
+
+    @ElementCollection
+    @CollectionTable(
+        name = "customer_profile_visit_days",
+        joinColumns = @JoinColumn(name = "customer_id")
+    )
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "day_of_week")
+    @Column(name = "visits")
+    private Map<DayOfWeek, Long> visitsByDay = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(
+        name = "customer_profile_visit_times",
+        joinColumns = @JoinColumn(name = "customer_id")
+    )
+    @MapKeyColumn(name = "time_of_day")
+    @Column(name = "visits")
+    private Map<String, Long> visitsByTimeOfDay = new HashMap<>();
+
+    // Bounded Space-Saving counter of order lines per item name
+    @ElementCollection
+    @CollectionTable(
+        name = "customer_profile_items",
+        joinColumns = @JoinColumn(name = "customer_id")
+    )
+    @MapKeyColumn(name = "item_name")
+    @Column(name = "line_count")
+    private Map<String, Long> itemCounts = new HashMap<>();
+}
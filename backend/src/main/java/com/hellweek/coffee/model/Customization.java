@@ -1,5 +1,6 @@
 package com.hellweek.coffee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
@@ -26,6 +27,7 @@ public class Customization {
     @OneToMany(mappedBy = "customization", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CustomizationOption> options;
 
+    @JsonIgnore
     @ManyToMany(mappedBy = "availableCustomizations")
     private List<Item> items;
 
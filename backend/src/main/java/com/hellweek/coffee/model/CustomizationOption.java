@@ -1,5 +1,6 @@
 package com.hellweek.coffee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -23,6 +24,7 @@ public class CustomizationOption {
     @Column(nullable = false)
     private Double price;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customization_id", nullable = false)
     private Customization customization;
@@ -0,0 +1,21 @@
+package com.hellweek.coffee.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Dictionary entry decoding one {@link CustomizationSignature} back to the
+ * customizations it stands for, so analytics can group order lines by
+ * signature and only expand each distinct set once.
+ */
+@Data
+@Entity
+@Table(name = "customization_sets")
+public class CustomizationSet {
+    @Id
+    private Long signature;
+
+    // Sorted names, one per line; a repeated customization appears once per repeat
+    @Column(nullable = false, length = 4000)
+    private String names;
+}
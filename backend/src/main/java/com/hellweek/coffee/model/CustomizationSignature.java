@@ -0,0 +1,49 @@
+package com.hellweek.coffee.model;
+
+import java.util.Collection;
+
+/**
+ * Order-insensitive 64-bit fingerprint of an order line's customizations.
+ * Every name has a fixed, well-mixed 64-bit id and a line's signature is the
+ * sum of its ids, so the same customizations in any order share a signature,
+ * repeats still count, and adding one is a single addition. A line without
+ * customizations has signature {@value #NONE}.
+ */
+public final class CustomizationSignature {
+    public static final long NONE = 0;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private CustomizationSignature() {
+    }
+
+    public static long of(Collection<String> customizations) {
+        long signature = NONE;
+        if (customizations != null) {
+            for (String customization : customizations) {
+                signature = add(signature, customization);
+            }
+        }
+        return signature;
+    }
+
+    public static long add(long signature, String customization) {
+        return signature + idOf(customization);
+    }
+
+    // FNV-1a over the characters, then the MurmurHash3 finalizer so nearby names spread apart
+    static long idOf(String customization) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < customization.length(); i++) {
+            hash ^= customization.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hellweek.coffee.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(
+    name = "hourly_customer_sketches",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_hour", "kind"})
+)
+public class HourlyCustomerSketch {
+    public enum Kind {
+        MEMBER,
+        GUEST
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private LocalDateTime bucketHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    // HyperLogLog.toBytes(): members by customer id, guests by name
+    @Column(nullable = false, length = HyperLogLog.MAX_BYTES)
+    private byte[] registers;
+}
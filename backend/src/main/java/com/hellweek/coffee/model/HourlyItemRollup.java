@@ -0,0 +1,34 @@
+package com.hellweek.coffee.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(
+    name = "hourly_item_rollups_v2",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_hour", "menu_item_id", "payment_method"})
+)
+public class HourlyItemRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private LocalDateTime bucketHour;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "menu_item_id", nullable = false)
+    private MenuItem menuItem;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue_centavos", nullable = false)
+    private long revenueCentavos;
+}
@@ -0,0 +1,30 @@
+package com.hellweek.coffee.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(
+    name = "hourly_sales_rollups_v2",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_hour", "payment_method"})
+)
+public class HourlySalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private LocalDateTime bucketHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(name = "revenue_centavos", nullable = false)
+    private long revenueCentavos;
+}
@@ -0,0 +1,124 @@
+package com.hellweek.coffee.model;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * HyperLogLog distinct counter with {@value #REGISTERS} one-byte registers,
+ * for a relative standard error of about {@link #RELATIVE_ERROR}. Sketches
+ * merge by taking the larger register, so counts over any set of hours come
+ * from merging their sketches. Stored sparse, as (register, value) pairs,
+ * until that would be larger than the registers themselves.
+ */
+public final class HyperLogLog {
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final int MAX_BYTES = 1 + REGISTERS;
+    public static final double RELATIVE_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() == DENSE) {
+            buffer.get(sketch.registers);
+        } else {
+            while (buffer.hasRemaining()) {
+                int register = buffer.getShort() & 0xFFFF;
+                sketch.registers[register] = buffer.get();
+            }
+        }
+        return sketch;
+    }
+
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                used++;
+            }
+        }
+        if (used * 3 >= REGISTERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(MAX_BYTES);
+            buffer.put(DENSE).put(registers);
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + used * 3);
+        buffer.put(SPARSE);
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                buffer.putShort((short) i).put(registers[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Adds a value; returns whether the sketch changed, so callers can skip
+     * writing it back when it did not.
+     */
+    public boolean add(long value) {
+        long hash = mix(value);
+        int register = (int) (hash >>> (64 - PRECISION));
+        // Leading zeros of the bits left after the register index, plus one
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    // Names are counted case- and whitespace-insensitively
+    public boolean add(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash = (hash ^ normalized.charAt(i)) * 0x100000001b3L;
+        }
+        return add(hash);
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Few distinct values leave most registers empty, and counting those is more accurate
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // MurmurHash3's 64-bit finalizer, so sequential ids spread over every register
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
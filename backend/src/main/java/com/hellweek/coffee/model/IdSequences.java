@@ -0,0 +1,15 @@
+package com.hellweek.coffee.model;
+
+/**
+ * Shared by the entities whose ids come from pooled sequences, so that
+ * Hibernate can batch their inserts.
+ */
+public final class IdSequences {
+    /**
+     * Ids Hibernate hands out per sequence read; the sequences step by it too.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdSequences() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.hellweek.coffee.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(
+    name = "idempotency_keys",
+    indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+)
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    // Hex SHA-256 of the request as JSON
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
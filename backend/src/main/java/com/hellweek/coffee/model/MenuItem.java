@@ -1,13 +1,18 @@
 package com.hellweek.coffee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.hellweek.coffee.service.MenuItemChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import java.util.HashMap;
 import java.util.Map;
 
 @Data
 @Entity
 @Table(name = "menu_items")
+@EntityListeners(MenuItemChangeListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class MenuItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,6 +37,7 @@ public class MenuItem {
 
     private String imageUrl;
 
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(
         name = "menu_item_sizes",
@@ -41,6 +47,7 @@ public class MenuItem {
     @Column(name = "price_adjustment")
     private Map<String, Double> sizePriceAdjustments = new HashMap<>();
 
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(
         name = "menu_item_customizations",
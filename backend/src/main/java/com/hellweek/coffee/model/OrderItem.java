@@ -1,7 +1,9 @@
 package com.hellweek.coffee.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -11,9 +13,12 @@ import java.util.Objects;
 @Table(name = "order_items")
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; older identity ids are skipped at startup
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "transaction_id", nullable = false)
     private Transaction transaction;
@@ -30,6 +35,7 @@ public class OrderItem {
 
     private String size;
 
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(
         name = "order_item_customizations",
@@ -37,23 +43,38 @@ public class OrderItem {
     )
     private List<String> customizations = new ArrayList<>();
 
+    // Kept in step by addCustomization; null only on lines saved before it existed
+    @JsonIgnore
+    @Column(name = "customization_signature")
+    private Long customizationSignature = CustomizationSignature.NONE;
+
     private String notes;
 
+    // Same size and the same customizations in any order
     public boolean hasSameCustomizations(OrderItem other) {
         if (this == other) return true;
         if (other == null) return false;
         
-        if (!Objects.equals(size, other.size)) return false;
-        if (customizations == null && other.customizations == null) return true;
-        if (customizations == null || other.customizations == null) return false;
-        
-        return customizations.equals(other.customizations);
+        return Objects.equals(size, other.size) && signature() == other.signature();
     }
 
     public void addCustomization(String customization) {
+        long signature = signature();
         if (customizations == null) {
             customizations = new ArrayList<>();
         }
         customizations.add(customization);
+        customizationSignature = CustomizationSignature.add(signature, customization);
+    }
+
+    @PrePersist
+    protected void signCustomizations() {
+        customizationSignature = CustomizationSignature.of(customizations);
+    }
+
+    private long signature() {
+        return customizationSignature != null
+            ? customizationSignature
+            : CustomizationSignature.of(customizations);
     }
 }
@@ -2,22 +2,40 @@ package com.hellweek.coffee.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "transactions")
+// Lines and their menu items in the same query, for code that walks every line of many transactions
+@NamedEntityGraph(
+    name = Transaction.WITH_LINES,
+    attributeNodes = @NamedAttributeNode(value = "items", subgraph = "lines"),
+    subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("menuItem"))
+)
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_status_date", columnList = "status, transaction_date, id"),
+    @Index(name = "idx_transactions_customer_date", columnList = "customer_id, transaction_date, id")
+})
 public class Transaction {
+    public static final String WITH_LINES = "Transaction.withLines";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; older identity ids are skipped at startup
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
+    // Set for guest orders, which all share one guest customer row
+    @Column(name = "guest_name")
+    private String guestName;
+
     @ManyToOne
     @JoinColumn(name = "cashier_id")
     private User cashier;
@@ -25,6 +43,8 @@ public class Transaction {
     @Column(nullable = false)
     private LocalDateTime transactionDate;
 
+    // Paged listings cannot fetch-join a collection, so their lines load in batches instead
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "transaction", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -57,10 +77,17 @@ public class Transaction {
         recalculateTotal();
     }
 
-    private void recalculateTotal() {
-        this.total = items.stream()
-            .mapToDouble(item -> item.getUnitPrice() * item.getQuantity())
-            .sum();
+    // Summed in whole centavos so the total carries no floating-point drift
+    public void recalculateTotal() {
+        long centavos = 0;
+        for (OrderItem item : items) {
+            centavos += Centavos.of(item.getUnitPrice()) * item.getQuantity();
+        }
+        this.total = Centavos.toAmount(centavos);
+    }
+
+    public String getCustomerName() {
+        return guestName != null ? guestName : customer.getFirstName();
     }
 
     public boolean isCompleted() {
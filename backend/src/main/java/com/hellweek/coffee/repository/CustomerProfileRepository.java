@@ -0,0 +1,18 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.model.CustomerProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CustomerProfileRepository extends JpaRepository<CustomerProfile, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM CustomerProfile p WHERE p.customerId = :customerId")
+    Optional<CustomerProfile> findForUpdate(@Param("customerId") Long customerId);
+}
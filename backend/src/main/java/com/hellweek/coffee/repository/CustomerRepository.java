@@ -1,13 +1,26 @@
 package com.hellweek.coffee.repository;
 
 import com.hellweek.coffee.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByMembershipId(String membershipId);
+    List<Customer> findByMembershipIdIn(Collection<String> membershipIds);
     boolean existsByMembershipId(String membershipId);
+    Optional<Customer> findFirstBySharedGuestTrueOrderByIdAsc();
+
+    // Rows created per guest order before guests shared one customer: a first name and nothing else
+    @Query("SELECT c.id FROM Customer c WHERE c.isMember = false AND c.sharedGuest = false " +
+           "AND c.membershipId IS NULL AND c.lastName IS NULL AND c.email IS NULL " +
+           "AND c.phone IS NULL AND c.dateOfBirth IS NULL AND c.id > :afterId ORDER BY c.id")
+    List<Long> findLegacyGuestIdsAfter(@Param("afterId") Long afterId, Pageable page);
 }
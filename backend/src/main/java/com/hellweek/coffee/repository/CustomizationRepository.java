@@ -2,11 +2,18 @@ package com.hellweek.coffee.repository;
 
 import com.hellweek.coffee.model.Customization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CustomizationRepository extends JpaRepository<Customization, Long> {
     List<Customization> findByApplicableType(Customization.ItemType type);
     boolean existsByName(String name);
+
+    @Query("SELECT DISTINCT c FROM Customization c LEFT JOIN FETCH c.options WHERE c.id IN :ids")
+    List<Customization> findAllWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,18 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.model.CustomizationSet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomizationSetRepository extends JpaRepository<CustomizationSet, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO customization_sets (signature, names) " +
+                   "SELECT CAST(:signature AS BIGINT), CAST(:names AS VARCHAR(4000)) " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM customization_sets WHERE signature = :signature)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("signature") long signature, @Param("names") String names);
+}
@@ -0,0 +1,39 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.model.HourlyCustomerSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HourlyCustomerSketchRepository extends JpaRepository<HourlyCustomerSketch, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM HourlyCustomerSketch s WHERE s.bucketHour = :bucketHour AND s.kind = :kind")
+    Optional<HourlyCustomerSketch> findForUpdate(
+        @Param("bucketHour") LocalDateTime bucketHour,
+        @Param("kind") HourlyCustomerSketch.Kind kind
+    );
+
+    @Query("SELECT s FROM HourlyCustomerSketch s WHERE s.bucketHour >= :start AND s.bucketHour < :end")
+    List<HourlyCustomerSketch> findInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT MIN(s.bucketHour) FROM HourlyCustomerSketch s")
+    LocalDateTime findFirstBucketHour();
+
+    @Modifying
+    @Query("DELETE FROM HourlyCustomerSketch s WHERE s.bucketHour >= :start AND s.bucketHour < :end")
+    int deleteInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+}
@@ -0,0 +1,49 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.dto.ItemSalesSummary;
+import com.hellweek.coffee.model.HourlyItemRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HourlyItemRollupRepository extends JpaRepository<HourlyItemRollup, Long> {
+    @Query("SELECT r FROM HourlyItemRollup r WHERE r.bucketHour >= :start AND r.bucketHour < :end")
+    List<HourlyItemRollup> findInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT m.id AS menuItemId, m.name AS name, SUM(r.quantity) AS quantity, SUM(r.revenueCentavos) AS revenueCentavos " +
+           "FROM HourlyItemRollup r JOIN r.menuItem m " +
+           "WHERE r.bucketHour >= :start AND r.bucketHour < :end " +
+           "GROUP BY m.id, m.name")
+    List<ItemSalesSummary> summarizeItemsInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Modifying
+    @Query(value = "UPDATE hourly_item_rollups_v2 SET quantity = quantity + :quantity, " +
+                   "revenue_centavos = revenue_centavos + :revenueCentavos " +
+                   "WHERE bucket_hour = :bucketHour AND menu_item_id = :menuItemId AND payment_method = :paymentMethod",
+           nativeQuery = true)
+    int increment(
+        @Param("bucketHour") LocalDateTime bucketHour,
+        @Param("menuItemId") Long menuItemId,
+        @Param("paymentMethod") String paymentMethod,
+        @Param("quantity") long quantity,
+        @Param("revenueCentavos") long revenueCentavos
+    );
+
+    @Modifying
+    @Query("DELETE FROM HourlyItemRollup r WHERE r.bucketHour >= :start AND r.bucketHour < :end")
+    int deleteInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+}
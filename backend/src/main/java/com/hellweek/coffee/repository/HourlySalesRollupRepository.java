@@ -0,0 +1,41 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.model.HourlySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HourlySalesRollupRepository extends JpaRepository<HourlySalesRollup, Long> {
+    @Query("SELECT r FROM HourlySalesRollup r WHERE r.bucketHour >= :start AND r.bucketHour < :end")
+    List<HourlySalesRollup> findInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT MIN(r.bucketHour) FROM HourlySalesRollup r")
+    LocalDateTime findFirstBucketHour();
+
+    @Modifying
+    @Query(value = "UPDATE hourly_sales_rollups_v2 SET transaction_count = transaction_count + :transactionCount, " +
+                   "revenue_centavos = revenue_centavos + :revenueCentavos " +
+                   "WHERE bucket_hour = :bucketHour AND payment_method = :paymentMethod",
+           nativeQuery = true)
+    int increment(
+        @Param("bucketHour") LocalDateTime bucketHour,
+        @Param("paymentMethod") String paymentMethod,
+        @Param("transactionCount") long transactionCount,
+        @Param("revenueCentavos") long revenueCentavos
+    );
+
+    @Modifying
+    @Query("DELETE FROM HourlySalesRollup r WHERE r.bucketHour >= :start AND r.bucketHour < :end")
+    int deleteInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+}
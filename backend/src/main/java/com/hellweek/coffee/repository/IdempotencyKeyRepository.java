@@ -0,0 +1,28 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    // Plain insert: save() on an assigned id would select first to decide between persist and merge
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, transaction_id, created_at) " +
+                   "VALUES (:key, :requestHash, :transactionId, :createdAt)",
+           nativeQuery = true)
+    void insert(
+        @Param("key") String key,
+        @Param("requestHash") String requestHash,
+        @Param("transactionId") Long transactionId,
+        @Param("createdAt") LocalDateTime createdAt
+    );
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,16 +1,37 @@
 package com.hellweek.coffee.repository;
 
+import com.hellweek.coffee.dto.CategoryItemCountRow;
+import com.hellweek.coffee.dto.ItemCustomizationRow;
+import com.hellweek.coffee.dto.ItemSizePriceRow;
 import com.hellweek.coffee.model.Item;
 import com.hellweek.coffee.model.ItemType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, String> {
-    List<Item> findByActive(boolean active);
-    List<Item> findByCategoryId(String categoryId);
-    List<Item> findByActiveAndCategoryId(boolean active, String categoryId);
-    List<Item> findByType(ItemType type);
+    @Query("SELECT i FROM Item i JOIN FETCH i.category " +
+           "WHERE (:active IS NULL OR i.active = :active) AND (:categoryId IS NULL OR i.category.id = :categoryId) " +
+           "ORDER BY i.name, i.code")
+    List<Item> findListing(@Param("active") Boolean active, @Param("categoryId") String categoryId);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.category WHERE i.type = :type ORDER BY i.name, i.code")
+    List<Item> findListingByType(@Param("type") ItemType type);
+
+    @Query("SELECT new com.hellweek.coffee.dto.ItemSizePriceRow(i.code, KEY(p), VALUE(p)) " +
+           "FROM Item i JOIN i.sizePrices p WHERE i.code IN :codes")
+    List<ItemSizePriceRow> findSizePrices(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT new com.hellweek.coffee.dto.ItemCustomizationRow(i.code, c.id) " +
+           "FROM Item i JOIN i.availableCustomizations c WHERE i.code IN :codes ORDER BY c.id")
+    List<ItemCustomizationRow> findCustomizationLinks(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT new com.hellweek.coffee.dto.CategoryItemCountRow(i.category.id, COUNT(i)) " +
+           "FROM Item i WHERE i.category.id IN :categoryIds GROUP BY i.category.id")
+    List<CategoryItemCountRow> countByCategoryIds(@Param("categoryIds") Collection<String> categoryIds);
 }
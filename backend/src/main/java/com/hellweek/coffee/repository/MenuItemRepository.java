@@ -2,7 +2,10 @@ package com.hellweek.coffee.repository;
 
 import com.hellweek.coffee.model.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,21 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     Optional<MenuItem> findByCode(String code);
     List<MenuItem> findByAvailableTrue();
     List<MenuItem> findByCategoryAndAvailableTrue(String category);
+
+    @Query("SELECT DISTINCT m FROM MenuItem m " +
+           "LEFT JOIN FETCH m.sizePriceAdjustments " +
+           "LEFT JOIN FETCH m.customizationPriceAdjustments")
+    List<MenuItem> findAllWithPrices();
+
+    @Query("SELECT DISTINCT m FROM MenuItem m " +
+           "LEFT JOIN FETCH m.sizePriceAdjustments " +
+           "LEFT JOIN FETCH m.customizationPriceAdjustments " +
+           "WHERE m.code IN :codes")
+    List<MenuItem> findAllWithPricesByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT DISTINCT m FROM MenuItem m " +
+           "LEFT JOIN FETCH m.sizePriceAdjustments " +
+           "LEFT JOIN FETCH m.customizationPriceAdjustments " +
+           "WHERE m.id IN :ids")
+    List<MenuItem> findAllWithPricesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,28 @@
+package com.hellweek.coffee.repository;
+
+import com.hellweek.coffee.dto.LineCustomizationRow;
+import com.hellweek.coffee.model.OrderItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    // Lines saved before customization signatures were stored
+    @Query("SELECT oi.id FROM OrderItem oi WHERE oi.customizationSignature IS NULL AND oi.id > :afterId ORDER BY oi.id")
+    List<Long> findUnsignedIdsAfter(@Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT new com.hellweek.coffee.dto.LineCustomizationRow(oi.id, c) " +
+           "FROM OrderItem oi JOIN oi.customizations c WHERE oi.id IN :ids")
+    List<LineCustomizationRow> findCustomizations(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.customizationSignature = :signature WHERE oi.id IN :ids")
+    int setCustomizationSignature(@Param("signature") long signature, @Param("ids") Collection<Long> ids);
+}
@@ -1,29 +1,78 @@
 package com.hellweek.coffee.repository;
 
+import com.hellweek.coffee.dto.CustomerVisitRow;
+import com.hellweek.coffee.dto.CustomizationSetRow;
+import com.hellweek.coffee.dto.HourlyItemSalesRow;
+import com.hellweek.coffee.dto.HourlySalesRow;
+import com.hellweek.coffee.dto.ItemSalesSummary;
+import com.hellweek.coffee.dto.OrderLineRow;
+import com.hellweek.coffee.dto.SalesLineRow;
 import com.hellweek.coffee.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByStatus(String status);
+
+    @EntityGraph(value = Transaction.WITH_LINES, type = EntityGraph.EntityGraphType.LOAD)
     List<Transaction> findByStatusOrderByTransactionDateDesc(String status);
-    
+
+    @EntityGraph(value = Transaction.WITH_LINES, type = EntityGraph.EntityGraphType.LOAD)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findWithLinesById(@Param("id") Long id);
+
+    @EntityGraph(value = Transaction.WITH_LINES, type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId ORDER BY t.transactionDate DESC")
     List<Transaction> findCustomerTransactionHistory(@Param("customerId") Long customerId);
 
-    @Query("SELECT t FROM Transaction t WHERE t.status = 'COMPLETED' " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY t.transactionDate DESC")
-    List<Transaction> findCompletedTransactionsInDateRange(
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findFirstPageByStatus(@Param("status") String status, Pageable page);
+
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findPageByStatusAfter(
+        @Param("status") String status,
+        @Param("date") LocalDateTime date,
+        @Param("id") Long id,
+        Pageable page
     );
 
+    @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findFirstHistoryPage(@Param("customerId") Long customerId, Pageable page);
+
+    @Query("SELECT t FROM Transaction t WHERE t.customer.id = :customerId " +
+           "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findHistoryPageAfter(
+        @Param("customerId") Long customerId,
+        @Param("date") LocalDateTime date,
+        @Param("id") Long id,
+        Pageable page
+    );
+
+    @Query("SELECT MIN(t.transactionDate) FROM Transaction t WHERE t.status = 'COMPLETED'")
+    LocalDateTime findFirstCompletedDate();
+
+    @Query("SELECT MIN(t.transactionDate) FROM Transaction t JOIN t.customer c WHERE t.status = 'COMPLETED'")
+    LocalDateTime findFirstCompletedVisitDate();
+
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.status = 'COMPLETED' " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate")
     long countCompletedTransactionsInDateRange(
@@ -37,4 +86,86 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    @Modifying
+    @Query(value = "UPDATE transactions SET " +
+                   "guest_name = (SELECT c.first_name FROM customers c WHERE c.id = transactions.customer_id), " +
+                   "customer_id = :sharedGuestId " +
+                   "WHERE customer_id IN (:customerIds)",
+           nativeQuery = true)
+    int moveToSharedGuest(
+        @Param("customerIds") Collection<Long> customerIds,
+        @Param("sharedGuestId") Long sharedGuestId
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.hellweek.coffee.dto.OrderLineRow(t.id, t.transactionDate, t.total, t.paymentMethod, " +
+           "m.code, m.name, m.category, oi.size, oi.quantity, oi.unitPrice) " +
+           "FROM Transaction t LEFT JOIN t.items oi LEFT JOIN oi.menuItem m " +
+           "WHERE t.status = 'COMPLETED' AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "ORDER BY t.id")
+    Stream<OrderLineRow> streamCompletedLinesInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.hellweek.coffee.dto.SalesLineRow(t.id, t.transactionDate, t.total, t.paymentMethod, " +
+           "c.id, oi.menuItem.id, oi.quantity, oi.unitPrice) " +
+           "FROM Transaction t LEFT JOIN t.cashier c LEFT JOIN t.items oi " +
+           "WHERE t.status = 'COMPLETED' " +
+           "ORDER BY t.id, oi.id")
+    Stream<SalesLineRow> streamCompletedSalesLines();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.hellweek.coffee.dto.CustomerVisitRow(t.transactionDate, c.id, c.isMember, " +
+           "COALESCE(t.guestName, c.firstName)) " +
+           "FROM Transaction t JOIN t.customer c " +
+           "WHERE t.status = 'COMPLETED' AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "ORDER BY t.transactionDate")
+    Stream<CustomerVisitRow> streamCustomerVisitsInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    // Lines without customizations, and any not yet signed, are left out
+    @Query("SELECT new com.hellweek.coffee.dto.CustomizationSetRow(m.code, oi.customizationSignature, SUM(oi.quantity)) " +
+           "FROM OrderItem oi JOIN oi.transaction t JOIN oi.menuItem m " +
+           "WHERE t.status = 'COMPLETED' AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "AND oi.customizationSignature <> 0 " +
+           "GROUP BY m.code, oi.customizationSignature")
+    List<CustomizationSetRow> summarizeCustomizationSetsInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT new com.hellweek.coffee.dto.HourlySalesRow(truncate(t.transactionDate, hour), t.paymentMethod, " +
+           "COUNT(t), SUM(cast(round(t.total * 100, 0) as Long))) " +
+           "FROM Transaction t " +
+           "WHERE t.status = 'COMPLETED' AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "GROUP BY truncate(t.transactionDate, hour), t.paymentMethod")
+    List<HourlySalesRow> aggregateSalesByHour(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT new com.hellweek.coffee.dto.HourlyItemSalesRow(truncate(t.transactionDate, hour), oi.menuItem.id, " +
+           "t.paymentMethod, SUM(oi.quantity), SUM(cast(round(oi.unitPrice * 100, 0) as Long) * oi.quantity)) " +
+           "FROM OrderItem oi JOIN oi.transaction t " +
+           "WHERE t.status = 'COMPLETED' AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "GROUP BY truncate(t.transactionDate, hour), oi.menuItem.id, t.paymentMethod")
+    List<HourlyItemSalesRow> aggregateItemSalesByHour(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT m.id AS menuItemId, m.name AS name, SUM(oi.quantity) AS quantity, " +
+           "SUM(cast(round(oi.unitPrice * 100, 0) as Long) * oi.quantity) AS revenueCentavos " +
+           "FROM OrderItem oi JOIN oi.transaction t JOIN oi.menuItem m " +
+           "WHERE t.status = 'COMPLETED' AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "GROUP BY m.id, m.name")
+    List<ItemSalesSummary> summarizeItemsInRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
 }
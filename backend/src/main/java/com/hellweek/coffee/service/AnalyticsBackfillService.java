@@ -0,0 +1,83 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.repository.HourlyCustomerSketchRepository;
+import com.hellweek.coffee.repository.HourlySalesRollupRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Fills in, at startup, the hourly rollups and customer sketches that
+ * transactions completed before they were kept never got, and drops any daily
+ * report cached from them.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsBackfillService {
+    private final TransactionRepository transactionRepository;
+    private final HourlySalesRollupRepository salesRollupRepository;
+    private final HourlyCustomerSketchRepository sketchRepository;
+    private final SalesRollupService salesRollupService;
+    private final UniqueCustomerService uniqueCustomerService;
+    private final DailyReportCache dailyReportCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfillRollups();
+        backfillSketches();
+    }
+
+    /**
+     * Rebuilds the sales rollups from the first completed transaction through
+     * the first rolled-up hour, which may only hold the completions made after
+     * rollups were switched on. Returns the transactions rolled up; none once
+     * the rollups start at the first completed transaction.
+     */
+    public long backfillRollups() {
+        return backfill(transactionRepository.findFirstCompletedDate(), salesRollupRepository.findFirstBucketHour(),
+            salesRollupService::rebuild);
+    }
+
+    /**
+     * Rebuilds the unique customer sketches the same way, from the first
+     * completed transaction with a customer.
+     */
+    public long backfillSketches() {
+        return backfill(transactionRepository.findFirstCompletedVisitDate(), sketchRepository.findFirstBucketHour(),
+            uniqueCustomerService::rebuild);
+    }
+
+    /**
+     * Rebuilds a day at a time, each in its own transaction, so a completion
+     * waits on one day's rebuild at most.
+     */
+    private long backfill(LocalDateTime firstCompleted, LocalDateTime firstStored,
+                          BiFunction<LocalDateTime, LocalDateTime, Map<String, Object>> rebuild) {
+        if (firstCompleted == null) {
+            return 0;
+        }
+        LocalDateTime start = SalesRollupService.bucketOf(firstCompleted);
+        if (firstStored != null && !start.isBefore(firstStored)) {
+            return 0;
+        }
+        LocalDateTime end = (firstStored != null ? firstStored : SalesRollupService.bucketOf(LocalDateTime.now()))
+            .plusHours(1);
+
+        long transactions = 0;
+        LocalDateTime from = start;
+        while (from.isBefore(end)) {
+            LocalDateTime nextDay = from.toLocalDate().plusDays(1).atStartOfDay();
+            LocalDateTime to = nextDay.isBefore(end) ? nextDay : end;
+            transactions += (Long) rebuild.apply(from, to).get("transactions");
+            dailyReportCache.invalidate(from, to);
+            from = to;
+        }
+        return transactions;
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SessionTokenService sessionTokenService;
 
     @PostConstruct
     public void initializeAdmin() {
@@ -82,7 +83,13 @@ public class AuthService {
         user.setLastName(request.getLastName());
         user.setRole(request.getRole());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+            sessionTokenService.revokeUser(userId);
+        } else {
+            sessionTokenService.refreshUser(saved);
+        }
+        return saved;
     }
 
     @Transactional
@@ -91,5 +98,6 @@ public class AuthService {
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
         user.setActive(false);
         userRepository.save(user);
+        sessionTokenService.revokeUser(userId);
     }
 }
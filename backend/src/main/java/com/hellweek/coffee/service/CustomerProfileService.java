@@ -0,0 +1,256 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.*;
+import com.hellweek.coffee.repository.CustomerProfileRepository;
+import com.hellweek.coffee.repository.CustomerRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one {@link CustomerProfile} row per member, updated as their
+ * transactions complete, so analytics never replays the full history.
+ */
+@Service
+public class CustomerProfileService {
+    static final int TRACKED_ITEMS = 20;
+    static final int PREFERRED_ITEMS = 5;
+
+    private final CustomerProfileRepository customerProfileRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate seedTemplate;
+
+    public CustomerProfileService(CustomerProfileRepository customerProfileRepository,
+                                  CustomerRepository customerRepository,
+                                  TransactionRepository transactionRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.customerProfileRepository = customerProfileRepository;
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.seedTemplate = new TransactionTemplate(transactionManager);
+        this.seedTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletion(Transaction transaction) {
+        recordCompletions(List.of(transaction));
+    }
+
+    /**
+     * Applies a batch of completed transactions to their members' profiles.
+     * Profiles are locked in customer id order, so a batch never waits on a
+     * completion that is waiting on it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletions(Collection<Transaction> transactions) {
+        SortedMap<Long, List<Transaction>> byMember = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getCustomer().isMember()) {
+                byMember.computeIfAbsent(transaction.getCustomer().getId(), id -> new ArrayList<>()).add(transaction);
+            }
+        }
+
+        byMember.forEach((customerId, completed) -> {
+            CustomerProfile profile = lockProfile(customerId);
+            if (profile.getVisitCount() == 0) {
+                // First completion since profiles were introduced: seed from history,
+                // which already includes these transactions
+                overwrite(profile, recompute(customerId, TRACKED_ITEMS));
+            } else {
+                completed.forEach(transaction -> apply(profile, transaction, TRACKED_ITEMS));
+            }
+        });
+    }
+
+    /**
+     * The member's stored profile, seeded from history on first read. Guests
+     * are never updated on completion, so theirs is recomputed on every read
+     * and not stored.
+     */
+    @Transactional
+    public CustomerProfile getProfile(Long customerId) {
+        Customer customer = customerRepository.findById(customerId)
+            .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
+        if (!customer.isMember()) {
+            return recompute(customerId, TRACKED_ITEMS);
+        }
+
+        Optional<CustomerProfile> stored = customerProfileRepository.findById(customerId);
+        if (stored.isPresent() && stored.get().getVisitCount() > 0) {
+            return stored.get();
+        }
+        CustomerProfile profile = lockProfile(customerId);
+        if (profile.getVisitCount() == 0) {
+            overwrite(profile, recompute(customerId, TRACKED_ITEMS));
+        }
+        return profile;
+    }
+
+    /**
+     * Recomputes the profile exactly from the transaction history and reports
+     * every field where the stored profile has drifted. With {@code repair}
+     * the stored profile is replaced by the recomputed one.
+     */
+    @Transactional
+    public Map<String, Object> checkConsistency(Long customerId, boolean repair) {
+        Customer customer = customerRepository.findById(customerId)
+            .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
+        if (!customer.isMember()) {
+            throw new IllegalArgumentException("Profiles are only kept for members");
+        }
+
+        CustomerProfile stored = customerProfileRepository.findById(customerId).orElse(null);
+        CustomerProfile expected = recompute(customerId, Integer.MAX_VALUE);
+
+        Map<String, Object> drift = new LinkedHashMap<>();
+        if (stored == null) {
+            drift.put("profile", "missing");
+        } else {
+            compare(drift, "visitCount", stored.getVisitCount(), expected.getVisitCount());
+            compare(drift, "loyaltyPoints", stored.getLoyaltyPoints(), expected.getLoyaltyPoints());
+            compare(drift, "visitsByDay", stored.getVisitsByDay(), expected.getVisitsByDay());
+            compare(drift, "visitsByTimeOfDay", stored.getVisitsByTimeOfDay(), expected.getVisitsByTimeOfDay());
+            compare(drift, "preferredItems", preferredItems(stored), preferredItems(expected));
+            if (Centavos.of(stored.getTotalSpent()) != Centavos.of(expected.getTotalSpent())) {
+                drift.put("totalSpent", Map.of("stored", stored.getTotalSpent(), "recomputed", expected.getTotalSpent()));
+            }
+        }
+
+        if (repair && !drift.isEmpty()) {
+            CustomerProfile repaired = recompute(customerId, TRACKED_ITEMS);
+            overwrite(stored == null ? lockProfile(customerId) : stored, repaired);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("customerId", customerId);
+        result.put("consistent", drift.isEmpty());
+        result.put("drift", drift);
+        result.put("repaired", repair && !drift.isEmpty());
+        return result;
+    }
+
+    public List<String> preferredItems(CustomerProfile profile) {
+        return profile.getItemCounts().entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()))
+            .limit(PREFERRED_ITEMS)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    CustomerProfile recompute(Long customerId, int trackedItems) {
+        List<Transaction> history = new ArrayList<>(transactionRepository.findCustomerTransactionHistory(customerId));
+        Collections.reverse(history);
+
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId(customerId);
+        for (Transaction transaction : history) {
+            if (transaction.isCompleted()) {
+                apply(profile, transaction, trackedItems);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Locks the member's profile row, inserting an empty one first if there is
+     * none. The insert commits on its own, so when two transactions race to
+     * create the row the loser only loses that insert, then waits on the lock
+     * like any other writer instead of failing its checkout.
+     */
+    private CustomerProfile lockProfile(Long customerId) {
+        Optional<CustomerProfile> existing = customerProfileRepository.findForUpdate(customerId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            seedTemplate.executeWithoutResult(status -> {
+                CustomerProfile seed = new CustomerProfile();
+                seed.setCustomerId(customerId);
+                customerProfileRepository.saveAndFlush(seed);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Inserted by a concurrent transaction since the lookup above
+        }
+        return customerProfileRepository.findForUpdate(customerId)
+            .orElseThrow(() -> new IllegalStateException("Customer profile was not created"));
+    }
+
+    private void apply(CustomerProfile profile, Transaction transaction, int trackedItems) {
+        LocalDateTime date = transaction.getTransactionDate();
+        profile.setVisitCount(profile.getVisitCount() + 1);
+        // Added in centavos, so the total is exact however many visits it spans
+        profile.setTotalSpent(Centavos.toAmount(Centavos.of(profile.getTotalSpent()) + Centavos.of(transaction.getTotal())));
+        profile.setLoyaltyPoints(profile.getLoyaltyPoints() + calculatePointsForTransaction(transaction.getTotal()));
+        if (profile.getLastVisit() == null || date.isAfter(profile.getLastVisit())) {
+            profile.setLastVisit(date);
+        }
+        profile.getVisitsByDay().merge(date.getDayOfWeek(), 1L, Long::sum);
+        profile.getVisitsByTimeOfDay().merge(getTimeOfDay(date), 1L, Long::sum);
+
+        for (OrderItem item : transaction.getItems()) {
+            countItem(profile.getItemCounts(), item.getMenuItem().getName(), trackedItems);
+        }
+    }
+
+    // Space-Saving: once full, an unseen item takes over the smallest counter
+    private void countItem(Map<String, Long> counts, String itemName, int capacity) {
+        if (counts.containsKey(itemName) || counts.size() < capacity) {
+            counts.merge(itemName, 1L, Long::sum);
+            return;
+        }
+        Map.Entry<String, Long> smallest = Collections.min(counts.entrySet(), Map.Entry.comparingByValue());
+        long floor = smallest.getValue();
+        counts.remove(smallest.getKey());
+        counts.put(itemName, floor + 1);
+    }
+
+    private void overwrite(CustomerProfile target, CustomerProfile source) {
+        target.setVisitCount(source.getVisitCount());
+        target.setTotalSpent(source.getTotalSpent());
+        target.setLoyaltyPoints(source.getLoyaltyPoints());
+        target.setLastVisit(source.getLastVisit());
+        target.getVisitsByDay().clear();
+        target.getVisitsByDay().putAll(source.getVisitsByDay());
+        target.getVisitsByTimeOfDay().clear();
+        target.getVisitsByTimeOfDay().putAll(source.getVisitsByTimeOfDay());
+        target.getItemCounts().clear();
+        target.getItemCounts().putAll(source.getItemCounts());
+    }
+
+    private void compare(Map<String, Object> drift, String field, Object stored, Object recomputed) {
+        if (!Objects.equals(stored, recomputed)) {
+            drift.put(field, Map.of("stored", stored, "recomputed", recomputed));
+        }
+    }
+
+    private String getTimeOfDay(LocalDateTime dateTime) {
+        int hour = dateTime.getHour();
+        if (hour >= 5 && hour < 12) return "MORNING";
+        if (hour >= 12 && hour < 17) return "AFTERNOON";
+        if (hour >= 17 && hour < 21) return "EVENING";
+        return "NIGHT";
+    }
+
+    private int calculatePointsForTransaction(double total) {
+        // Base points: 1 point per 20 pesos spent
+        int basePoints = (int) (total / 20);
+
+        // Bonus points for large transactions
+        if (total >= 1000) basePoints *= 2;
+        else if (total >= 500) basePoints += (int)(basePoints * 0.5);
+
+        return basePoints;
+    }
+}
@@ -4,14 +4,31 @@ import com.hellweek.coffee.dto.CustomerRequest;
 import com.hellweek.coffee.model.Customer;
 import com.hellweek.coffee.repository.CustomerRepository;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class CustomerService {
+    static final String SHARED_GUEST_NAME = "Guest";
+    static final int SHARED_GUEST_SLOT = 1;
+
     private final CustomerRepository customerRepository;
+    private final TransactionTemplate seedTemplate;
+    private volatile Long sharedGuestId;
+
+    public CustomerService(CustomerRepository customerRepository, PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.seedTemplate = new TransactionTemplate(transactionManager);
+        this.seedTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Transactional
     public Customer createCustomer(CustomerRequest request) {
@@ -74,6 +91,50 @@ public class CustomerService {
         }
     }
 
+    /**
+     * The customer every guest order is recorded against. Returned as a
+     * reference, so attaching it to a transaction costs no query.
+     */
+    public Customer getSharedGuest() {
+        Long id = sharedGuestId;
+        if (id == null) {
+            id = ensureSharedGuest();
+        }
+        return customerRepository.getReferenceById(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSharedGuestOnStartup() {
+        ensureSharedGuest();
+    }
+
+    /**
+     * Finds the shared guest, inserting it first if there is none. The insert
+     * commits on its own and takes the one shared guest slot, so when the first
+     * requests race to create the row the losers only lose that insert and
+     * read the winner's row instead of failing their checkout.
+     */
+    public Long ensureSharedGuest() {
+        Optional<Customer> guest = customerRepository.findFirstBySharedGuestTrueOrderByIdAsc();
+        if (guest.isEmpty()) {
+            try {
+                seedTemplate.executeWithoutResult(status -> {
+                    Customer created = new Customer();
+                    created.setFirstName(SHARED_GUEST_NAME);
+                    created.setMember(false);
+                    created.setSharedGuest(true);
+                    created.setSharedGuestSlot(SHARED_GUEST_SLOT);
+                    customerRepository.saveAndFlush(created);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Inserted by a concurrent request since the lookup above
+            }
+            guest = customerRepository.findFirstBySharedGuestTrueOrderByIdAsc();
+        }
+        sharedGuestId = guest.orElseThrow(() -> new IllegalStateException("Shared guest was not created")).getId();
+        return sharedGuestId;
+    }
+
     public Customer createGuestCustomer(String firstName) {
         CustomerRequest request = new CustomerRequest();
         request.setFirstName(firstName);
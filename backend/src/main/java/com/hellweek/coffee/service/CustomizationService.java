@@ -16,6 +16,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CustomizationService {
     private final CustomizationRepository customizationRepository;
+    private final ItemListingService itemListingService;
 
     @Transactional
     public Customization createCustomization(CustomizationRequest request) {
@@ -40,7 +41,9 @@ public class CustomizationService {
         }
         customization.setOptions(options);
 
-        return customizationRepository.save(customization);
+        Customization saved = customizationRepository.save(customization);
+        itemListingService.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -69,7 +72,9 @@ public class CustomizationService {
             }
         }
 
-        return customizationRepository.save(customization);
+        Customization saved = customizationRepository.save(customization);
+        itemListingService.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -77,6 +82,7 @@ public class CustomizationService {
         Customization customization = customizationRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Customization not found"));
         customizationRepository.delete(customization);
+        itemListingService.invalidate();
     }
 
     public List<Customization> getCustomizationsByType(Customization.ItemType type) {
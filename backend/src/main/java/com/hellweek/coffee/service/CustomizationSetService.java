@@ -0,0 +1,142 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.LineCustomizationRow;
+import com.hellweek.coffee.model.CustomizationSignature;
+import com.hellweek.coffee.model.OrderItem;
+import com.hellweek.coffee.repository.CustomizationSetRepository;
+import com.hellweek.coffee.repository.OrderItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the dictionary that decodes order line customization signatures
+ * back to names. A set is written the first time a line carries it and
+ * cached once that commits, so repeat orders cost no extra statement. Lines
+ * saved before signatures existed are signed in batches at startup.
+ */
+@Service
+public class CustomizationSetService {
+    static final int BACKFILL_BATCH_SIZE = 1000;
+    private static final String SEPARATOR = "\n";
+
+    private final CustomizationSetRepository customizationSetRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate batchTemplate;
+
+    // Only holds sets whose dictionary row is committed
+    private final ConcurrentHashMap<Long, List<String>> sets = new ConcurrentHashMap<>();
+    // New sets are rare; inserting them one transaction at a time keeps two orders from colliding on the key
+    private final ReentrantLock registration = new ReentrantLock();
+
+    public CustomizationSetService(CustomizationSetRepository customizationSetRepository,
+                                   OrderItemRepository orderItemRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.customizationSetRepository = customizationSetRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.batchTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void register(Collection<OrderItem> items) {
+        for (OrderItem item : items) {
+            long signature = item.getCustomizationSignature();
+            if (signature != CustomizationSignature.NONE && !sets.containsKey(signature)) {
+                register(signature, item.getCustomizations());
+            }
+        }
+    }
+
+    /**
+     * The customizations a signature stands for, sorted and with repeats;
+     * empty if the signature is unknown.
+     */
+    public List<String> namesOf(long signature) {
+        List<String> names = sets.get(signature);
+        if (names != null) {
+            return names;
+        }
+        return customizationSetRepository.findById(signature)
+            .map(set -> {
+                List<String> decoded = List.of(set.getNames().split(SEPARATOR, -1));
+                sets.putIfAbsent(signature, decoded);
+                return decoded;
+            })
+            .orElse(List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill(BACKFILL_BATCH_SIZE);
+    }
+
+    /**
+     * Signs every order line that has no stored signature, each batch in its
+     * own transaction so it can be stopped and rerun at any point.
+     */
+    public long backfill(int batchSize) {
+        long signed = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = orderItemRepository.findUnsignedIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return signed;
+            }
+            batchTemplate.executeWithoutResult(status -> sign(ids));
+            signed += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void sign(List<Long> ids) {
+        Map<Long, List<String>> customizationsByLine = new HashMap<>();
+        for (LineCustomizationRow row : orderItemRepository.findCustomizations(ids)) {
+            customizationsByLine.computeIfAbsent(row.getOrderItemId(), id -> new ArrayList<>()).add(row.getCustomization());
+        }
+
+        Map<Long, List<Long>> linesBySignature = new HashMap<>();
+        for (Long id : ids) {
+            List<String> customizations = customizationsByLine.getOrDefault(id, List.of());
+            long signature = CustomizationSignature.of(customizations);
+            if (signature != CustomizationSignature.NONE && !sets.containsKey(signature)) {
+                register(signature, customizations);
+            }
+            linesBySignature.computeIfAbsent(signature, key -> new ArrayList<>()).add(id);
+        }
+        linesBySignature.forEach(orderItemRepository::setCustomizationSignature);
+    }
+
+    private void register(long signature, List<String> customizations) {
+        if (!registration.isHeldByCurrentThread()) {
+            registration.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    registration.unlock();
+                }
+            });
+        }
+
+        List<String> names = new ArrayList<>(customizations);
+        Collections.sort(names);
+        customizationSetRepository.insertIfAbsent(signature, String.join(SEPARATOR, names));
+        List<String> decoded = List.copyOf(names);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sets.putIfAbsent(signature, decoded);
+            }
+        });
+    }
+}
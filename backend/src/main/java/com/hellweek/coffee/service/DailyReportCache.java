@@ -0,0 +1,452 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellweek.coffee.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps daily sales reports as encoded JSON. A closed business day, any day
+ * before today, is built once and kept in memory and in a spill directory,
+ * each bounded by size and evicting the least recently used day. Today is
+ * kept in memory only and rebuilt on the next request after a completion
+ * commits, so it always reflects every completed sale.
+ *
+ * <p>Completions that land on a closed day, such as an order opened before
+ * midnight, drop that day. Late corrections made outside checkout, and
+ * rollup or sketch rebuilds, must invalidate the days they touch.
+ */
+@Service
+public class DailyReportCache {
+    private static final String SUFFIX = ".json";
+
+    private final TransactionAnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long memoryLimit;
+    private final long diskLimit;
+
+    // Builds and invalidations of one day are serialized, so a day dropped mid-build is never spilled
+    private final StripedLocks stripes = new StripedLocks();
+    private final ConcurrentHashMap<LocalDate, Long> versions = new ConcurrentHashMap<>();
+
+    // Both access-ordered, so iteration starts at the least recently used day
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final LinkedHashMap<LocalDate, Report> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<LocalDate, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuildNanos = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+    private final AtomicLong spillFailures = new AtomicLong();
+    private volatile long lastRebuildNanos;
+
+    public DailyReportCache(TransactionAnalyticsService analyticsService,
+                            ObjectMapper objectMapper,
+                            @Value("${hellweek.reports.cache-dir:./report-cache}") Path directory,
+                            @Value("${hellweek.reports.memory-limit:16MB}") DataSize memoryLimit,
+                            @Value("${hellweek.reports.disk-limit:256MB}") DataSize diskLimit) {
+        this.analyticsService = analyticsService;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.memoryLimit = memoryLimit.toBytes();
+        this.diskLimit = diskLimit.toBytes();
+    }
+
+    /**
+     * Indexes the days spilled by a previous run, oldest write first, and
+     * trims them to the disk limit. Runs before the other startup listeners,
+     * so a day the rollup backfill invalidates is dropped from disk too.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void loadSpilled() throws IOException {
+        Files.createDirectories(directory);
+        List<Spilled> spilled = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                LocalDate day = dayOf(file);
+                if (day == null) {
+                    return;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    spilled.add(new Spilled(day, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                } catch (IOException e) {
+                    // Gone or unreadable: the day is simply built again
+                }
+            });
+        }
+        spilled.sort(Comparator.comparingLong(Spilled::getModified));
+
+        List<LocalDate> evicted;
+        indexLock.lock();
+        try {
+            for (Spilled file : spilled) {
+                if (file.getDay().isBefore(LocalDate.now())) {
+                    disk.put(file.getDay(), file.getBytes());
+                    diskBytes += file.getBytes();
+                }
+            }
+            evicted = trimDisk();
+        } finally {
+            indexLock.unlock();
+        }
+        evicted.forEach(this::delete);
+    }
+
+    /**
+     * The report for {@code day}, from memory, then the spill directory for a
+     * closed day, then built from the rollups.
+     */
+    public Report get(LocalDate day) {
+        Report report = fromMemory(day);
+        if (report != null) {
+            memoryHits.incrementAndGet();
+            return report;
+        }
+
+        ReentrantLock stripe = stripes.of(day);
+        stripe.lock();
+        try {
+            report = fromMemory(day);
+            if (report != null) {
+                memoryHits.incrementAndGet();
+                return report;
+            }
+            boolean closed = day.isBefore(LocalDate.now());
+            if (closed) {
+                report = fromDisk(day);
+                if (report != null) {
+                    diskHits.incrementAndGet();
+                    remember(report);
+                    return report;
+                }
+            }
+
+            misses.incrementAndGet();
+            long version = versionOf(day);
+            long startTime = System.nanoTime();
+            byte[] body = encode(analyticsService.generateDailySalesReport(day.atStartOfDay()));
+            long elapsed = System.nanoTime() - startTime;
+            rebuildNanos.addAndGet(elapsed);
+            lastRebuildNanos = elapsed;
+
+            report = new Report(day, version, closed, body, ETags.of(body));
+            // A completion that committed during the build is served next time, not kept
+            if (versionOf(day) == version) {
+                remember(report);
+                if (closed) {
+                    spill(report);
+                }
+            }
+            return report;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Drops the day of a completed transaction once it commits.
+     */
+    public void recordCompletion(Transaction transaction) {
+        LocalDate day = transaction.getTransactionDate().toLocalDate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(day);
+                }
+            });
+        } else {
+            invalidate(day);
+        }
+    }
+
+    /**
+     * Drops every day overlapping [start, end), or every day when both are
+     * null, from memory and disk.
+     */
+    public Map<String, Object> invalidate(LocalDateTime start, LocalDateTime end) {
+        List<LocalDate> days = new ArrayList<>();
+        if (start == null && end == null) {
+            indexLock.lock();
+            try {
+                days.addAll(memory.keySet());
+                days.addAll(disk.keySet());
+            } finally {
+                indexLock.unlock();
+            }
+        } else {
+            if (start == null || end == null || !end.isAfter(start)) {
+                throw new IllegalArgumentException("End must be after start");
+            }
+            for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+                days.add(day);
+            }
+        }
+
+        Set<LocalDate> dropped = new TreeSet<>();
+        for (LocalDate day : days) {
+            if (invalidate(day)) {
+                dropped.add(day);
+            }
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("days", days.size());
+        result.put("dropped", dropped);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        long memoryHitCount = memoryHits.get();
+        long diskHitCount = diskHits.get();
+        long missCount = misses.get();
+        long requests = memoryHitCount + diskHitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("memoryHits", memoryHitCount);
+        stats.put("diskHits", diskHitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) (memoryHitCount + diskHitCount) / requests);
+        stats.put("averageRebuildMillis", missCount == 0 ? 0.0 : rebuildNanos.get() / 1e6 / missCount);
+        stats.put("lastRebuildMillis", lastRebuildNanos / 1e6);
+        stats.put("invalidations", invalidations.get());
+        stats.put("memoryEvictions", memoryEvictions.get());
+        stats.put("diskEvictions", diskEvictions.get());
+        stats.put("spillFailures", spillFailures.get());
+        indexLock.lock();
+        try {
+            stats.put("memoryDays", memory.size());
+            stats.put("memoryBytes", memoryBytes);
+            stats.put("memoryLimit", memoryLimit);
+            stats.put("diskDays", disk.size());
+            stats.put("diskBytes", diskBytes);
+            stats.put("diskLimit", diskLimit);
+        } finally {
+            indexLock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * Today is only bumped, so checkout never waits on a report build; a
+     * build that raced the bump sees the new version and keeps nothing.
+     */
+    private boolean invalidate(LocalDate day) {
+        invalidations.incrementAndGet();
+        if (!day.isBefore(LocalDate.now())) {
+            versions.merge(day, 1L, Long::sum);
+            return forget(day);
+        }
+        ReentrantLock stripe = stripes.of(day);
+        stripe.lock();
+        try {
+            versions.merge(day, 1L, Long::sum);
+            return forget(day);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private boolean forget(LocalDate day) {
+        boolean spilled;
+        indexLock.lock();
+        try {
+            Report report = memory.remove(day);
+            if (report != null) {
+                memoryBytes -= report.getBody().length;
+            }
+            Long bytes = disk.remove(day);
+            spilled = bytes != null;
+            if (spilled) {
+                diskBytes -= bytes;
+            }
+            if (report == null && !spilled) {
+                return false;
+            }
+        } finally {
+            indexLock.unlock();
+        }
+        if (spilled) {
+            delete(day);
+        }
+        return true;
+    }
+
+    private Report fromMemory(LocalDate day) {
+        indexLock.lock();
+        try {
+            Report report = memory.get(day);
+            // A partial day held past midnight is rebuilt once as a closed one
+            if (report == null || report.getVersion() != versionOf(day)
+                    || (!report.isClosed() && day.isBefore(LocalDate.now()))) {
+                return null;
+            }
+            return report;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private Report fromDisk(LocalDate day) {
+        indexLock.lock();
+        try {
+            if (disk.get(day) == null) {
+                return null;
+            }
+        } finally {
+            indexLock.unlock();
+        }
+        try {
+            byte[] body = Files.readAllBytes(fileOf(day));
+            return new Report(day, versionOf(day), true, body, ETags.of(body));
+        } catch (IOException e) {
+            // Evicted by another day's spill since the lookup above
+            indexLock.lock();
+            try {
+                Long bytes = disk.remove(day);
+                if (bytes != null) {
+                    diskBytes -= bytes;
+                }
+            } finally {
+                indexLock.unlock();
+            }
+            return null;
+        }
+    }
+
+    private void remember(Report report) {
+        indexLock.lock();
+        try {
+            Report previous = memory.put(report.getDay(), report);
+            memoryBytes += report.getBody().length - (previous == null ? 0 : previous.getBody().length);
+            Iterator<Report> eldest = memory.values().iterator();
+            while (memoryBytes > memoryLimit && memory.size() > 1) {
+                memoryBytes -= eldest.next().getBody().length;
+                eldest.remove();
+                memoryEvictions.incrementAndGet();
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Written beside the target and moved into place, so a reader never sees half a report
+    private void spill(Report report) {
+        Path target = fileOf(report.getDay());
+        try {
+            Files.createDirectories(directory);
+            Path partial = Files.createTempFile(directory, report.getDay().toString(), ".tmp");
+            Files.write(partial, report.getBody());
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The day stays in memory and is built again once evicted from there
+            spillFailures.incrementAndGet();
+            return;
+        }
+
+        List<LocalDate> evicted;
+        indexLock.lock();
+        try {
+            Long previous = disk.put(report.getDay(), (long) report.getBody().length);
+            diskBytes += report.getBody().length - (previous == null ? 0 : previous);
+            evicted = trimDisk();
+        } finally {
+            indexLock.unlock();
+        }
+        evicted.forEach(this::delete);
+    }
+
+    // Caller holds indexLock; the evicted files are deleted by the caller after releasing it
+    private List<LocalDate> trimDisk() {
+        List<LocalDate> evicted = new ArrayList<>();
+        Iterator<Map.Entry<LocalDate, Long>> eldest = disk.entrySet().iterator();
+        while (diskBytes > diskLimit && eldest.hasNext()) {
+            Map.Entry<LocalDate, Long> entry = eldest.next();
+            diskBytes -= entry.getValue();
+            evicted.add(entry.getKey());
+            eldest.remove();
+            diskEvictions.incrementAndGet();
+        }
+        return evicted;
+    }
+
+    private void delete(LocalDate day) {
+        try {
+            Files.deleteIfExists(fileOf(day));
+        } catch (IOException e) {
+            // Unindexed, so never read again; overwritten if the day is spilled again
+        }
+    }
+
+    private long versionOf(LocalDate day) {
+        return versions.getOrDefault(day, 0L);
+    }
+
+    private Path fileOf(LocalDate day) {
+        return directory.resolve(day + SUFFIX);
+    }
+
+    private static LocalDate dayOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode daily report", e);
+        }
+    }
+
+    @lombok.Value
+    public static class Report {
+        LocalDate day;
+        long version;
+        boolean closed;
+        byte[] body;
+        String etag;
+    }
+
+    @lombok.Value
+    static class Spilled {
+        LocalDate day;
+        long bytes;
+        long modified;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hellweek.coffee.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags for cached response bodies: the first 128 bits of the body's
+ * SHA-256, so equal bodies get equal tags in every process.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String of(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
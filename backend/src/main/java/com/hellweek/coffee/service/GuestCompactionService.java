@@ -0,0 +1,76 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.repository.CustomerRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the customer rows that guest checkout used to create per order into
+ * the shared guest: each of their transactions is repointed at the shared
+ * guest with the old first name kept as the guest name, then the row is
+ * deleted. Runs in batches, each in its own transaction, so it can be
+ * stopped and rerun at any point.
+ */
+@Service
+public class GuestCompactionService {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+    private final CustomerService customerService;
+    private final TransactionTemplate batchTemplate;
+
+    public GuestCompactionService(CustomerRepository customerRepository,
+                                  TransactionRepository transactionRepository,
+                                  CustomerService customerService,
+                                  PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.customerService = customerService;
+        this.batchTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Map<String, Object> compact(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        long startTime = System.nanoTime();
+        Long sharedGuestId = customerService.ensureSharedGuest();
+        long customersRemoved = 0;
+        long transactionsMoved = 0;
+        int batches = 0;
+        long afterId = 0;
+
+        while (true) {
+            List<Long> ids = customerRepository.findLegacyGuestIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer moved = batchTemplate.execute(status -> {
+                int count = transactionRepository.moveToSharedGuest(ids, sharedGuestId);
+                customerRepository.deleteAllByIdInBatch(ids);
+                return count;
+            });
+            transactionsMoved += moved;
+            customersRemoved += ids.size();
+            batches++;
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("sharedGuestId", sharedGuestId);
+        result.put("customersRemoved", customersRemoved);
+        result.put("transactionsMoved", transactionsMoved);
+        result.put("batches", batches);
+        result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.IdSequences;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Transactions and order items used identity columns before they moved to
+ * pooled sequences. On a database that already holds rows, the sequences
+ * Hibernate creates start at 1, so at startup they are moved past the highest
+ * id in use before anything is inserted.
+ *
+ * <p>The sequence is inspected and restarted with H2 SQL; another database
+ * needs its own version of this.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceService {
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        align("transactions", "transactions_seq");
+        align("order_items", "order_items_seq");
+    }
+
+    private void align(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // Read without NEXT VALUE, which would throw away a block of ids on every startup
+        long next = jdbcTemplate.queryForObject(
+            "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = ?",
+            Long.class, sequence.toUpperCase(Locale.ROOT));
+        // The pooled optimizer hands out the block of ids ending at the value it reads
+        if (next - IdSequences.ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + IdSequences.ALLOCATION_SIZE));
+        }
+    }
+}
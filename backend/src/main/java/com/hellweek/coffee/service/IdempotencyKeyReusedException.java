@@ -0,0 +1,15 @@
+package com.hellweek.coffee.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An idempotency key sent again with a different request body. The client
+ * must pick a new key, so it is answered 422 rather than retried.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("Idempotency key was already used for a different request");
+    }
+}
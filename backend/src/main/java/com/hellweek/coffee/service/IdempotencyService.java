@@ -0,0 +1,183 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellweek.coffee.dto.TransactionRequest;
+import com.hellweek.coffee.model.IdempotencyKey;
+import com.hellweek.coffee.model.Transaction;
+import com.hellweek.coffee.model.User;
+import com.hellweek.coffee.repository.IdempotencyKeyRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+
+/**
+ * Makes {@code POST /api/transactions} safe to retry under an
+ * {@code Idempotency-Key}.
+ *
+ * <p>Keys seen by this process are held in memory, bounded and evicted after
+ * {@link #TTL}, so a duplicate is answered without touching the database and
+ * a concurrent duplicate waits for the first request to finish. The key is
+ * also inserted in the same database transaction as the order; that insert is
+ * the only extra statement on a first request, and its primary key catches
+ * duplicates of requests seen before a restart.
+ *
+ * <p>A key is bound to a SHA-256 digest of the request as JSON, which is the
+ * same in every process, so a retry after a restart is recognised as the
+ * same request and an edited body is not.
+ */
+@Service
+public class IdempotencyService {
+    static final Duration TTL = Duration.ofHours(24);
+    static final int MAX_KEYS = 100_000;
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<String, Submission> submissions = new ConcurrentHashMap<>();
+    // Insertion order is expiry order, since every key lives for the same TTL
+    private final ConcurrentLinkedQueue<Submission> byAge = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyService(TransactionService transactionService,
+                              TransactionRepository transactionRepository,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    public Transaction createTransaction(String key, TransactionRequest request, User cashier) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = fingerprint(request);
+        Submission mine = new Submission(key, requestHash, System.nanoTime());
+        while (true) {
+            Submission existing = submissions.putIfAbsent(key, mine);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(mine.getCreatedAt())) {
+                checkSameRequest(existing.getRequestHash(), requestHash);
+                return load(await(existing));
+            }
+            submissions.remove(key, existing);
+        }
+        byAge.add(mine);
+        evict();
+
+        try {
+            Transaction created = transactionTemplate.execute(status -> {
+                Transaction transaction = transactionService.createTransaction(request, cashier);
+                idempotencyKeyRepository.insert(key, requestHash, transaction.getId(), LocalDateTime.now());
+                return transaction;
+            });
+            mine.getTransactionId().complete(created.getId());
+            return created;
+        } catch (DataIntegrityViolationException e) {
+            // Key is in the table but no longer in memory (restart or eviction); this order rolled back
+            IdempotencyKey stored = idempotencyKeyRepository.findById(key).orElseThrow(() -> fail(mine, e));
+            if (!stored.getRequestHash().equals(requestHash)) {
+                throw fail(mine, new IdempotencyKeyReusedException());
+            }
+            mine.getTransactionId().complete(stored.getTransactionId());
+            return load(stored.getTransactionId());
+        } catch (RuntimeException e) {
+            throw fail(mine, e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    @Transactional
+    public void purgeExpired() {
+        idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(TTL));
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Submission oldest;
+        while ((oldest = byAge.peek()) != null && (oldest.isExpired(now) || submissions.size() > MAX_KEYS)) {
+            if (byAge.remove(oldest)) {
+                submissions.remove(oldest.getKey(), oldest);
+            }
+        }
+    }
+
+    private Long await(Submission submission) {
+        try {
+            return submission.getTransactionId().get(WAIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("A request with this idempotency key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request");
+        }
+    }
+
+    // Nothing was stored under the key, so a later retry should run again
+    private RuntimeException fail(Submission submission, RuntimeException cause) {
+        submissions.remove(submission.getKey(), submission);
+        submission.getTransactionId().completeExceptionally(cause);
+        return cause;
+    }
+
+    private Transaction load(Long transactionId) {
+        return transactionRepository.findById(transactionId)
+            .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
+    }
+
+    private void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+    }
+
+    private String fingerprint(TransactionRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    @Value
+    static class Submission {
+        String key;
+        String requestHash;
+        long createdAt;
+        CompletableFuture<Long> transactionId = new CompletableFuture<>();
+
+        boolean isExpired(long now) {
+            return now - createdAt > TTL.toNanos();
+        }
+    }
+}
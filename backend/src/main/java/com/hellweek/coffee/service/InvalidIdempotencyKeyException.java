@@ -0,0 +1,11 @@
+package com.hellweek.coffee.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
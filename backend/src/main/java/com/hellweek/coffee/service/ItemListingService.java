@@ -0,0 +1,110 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the item listings registers poll as ready-encoded JSON, one per
+ * filter combination, each with a strong ETag over its bytes. A refresh is a
+ * map lookup, or a 304 when the register already holds the same bytes.
+ *
+ * <p>Item and customization writes invalidate every listing once they commit.
+ * The next request rebuilds under a lock, so registers that all pull the menu
+ * at opening time wait for one query instead of each running their own.
+ */
+@Service
+public class ItemListingService {
+    static final int MAX_LISTINGS = 256;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTemplate;
+
+    private final ConcurrentHashMap<String, Listing> listings = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong(1);
+    // Not synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public ItemListingService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The listing cached under {@code key}, encoding what {@code loader}
+     * returns if there is none for the current menu. The loader runs in a
+     * read-only transaction that stays open while the result is serialized.
+     */
+    public Listing get(String key, Supplier<?> loader) {
+        Listing listing = listings.get(key);
+        if (listing != null && listing.getGeneration() == generation.get()) {
+            return listing;
+        }
+
+        rebuildLock.lock();
+        try {
+            long target = generation.get();
+            listing = listings.get(key);
+            if (listing != null && listing.getGeneration() == target) {
+                return listing;
+            }
+            byte[] body = readTemplate.execute(status -> encode(loader.get()));
+            listing = new Listing(target, body, ETags.of(body));
+            // Filters come from the query string, so unusual combinations are served but not all kept
+            if (listings.size() < MAX_LISTINGS || listings.containsKey(key)) {
+                listings.put(key, listing);
+            }
+            return listing;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Drops every cached listing. Inside a transaction this waits for commit,
+     * so a rebuild never encodes uncommitted or rolled-back items.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        listings.clear();
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode item listing", e);
+        }
+    }
+
+    @Value
+    public static class Listing {
+        long generation;
+        byte[] body;
+        String etag;
+    }
+}
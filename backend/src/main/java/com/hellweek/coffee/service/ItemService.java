@@ -1,8 +1,13 @@
 package com.hellweek.coffee.service;
 
+import com.hellweek.coffee.dto.CategoryItemCountRow;
+import com.hellweek.coffee.dto.ItemCustomizationRow;
 import com.hellweek.coffee.dto.ItemRequest;
+import com.hellweek.coffee.dto.ItemSizePriceRow;
+import com.hellweek.coffee.dto.ItemView;
 import com.hellweek.coffee.model.Category;
 import com.hellweek.coffee.model.Customization;
+import com.hellweek.coffee.model.CustomizationOption;
 import com.hellweek.coffee.model.Item;
 import com.hellweek.coffee.model.ItemType;
 import com.hellweek.coffee.repository.CategoryRepository;
@@ -13,9 +18,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +27,7 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final CategoryRepository categoryRepository;
     private final CustomizationRepository customizationRepository;
+    private final ItemListingService itemListingService;
 
     @Transactional
     public Item createItem(ItemRequest request) {
@@ -44,19 +49,14 @@ public class ItemService {
             item.setAvailableCustomizations(customizations);
         }
 
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemListingService.invalidate();
+        return saved;
     }
 
     @Transactional(readOnly = true)
-    public List<Item> getAllItems(Boolean active, String categoryId) {
-        if (active != null && categoryId != null) {
-            return itemRepository.findByActiveAndCategoryId(active, categoryId);
-        } else if (active != null) {
-            return itemRepository.findByActive(active);
-        } else if (categoryId != null) {
-            return itemRepository.findByCategoryId(categoryId);
-        }
-        return itemRepository.findAll();
+    public List<ItemView> getAllItems(Boolean active, String categoryId) {
+        return toViews(itemRepository.findListing(active, categoryId));
     }
 
     @Transactional(readOnly = true)
@@ -85,7 +85,9 @@ public class ItemService {
             item.setAvailableCustomizations(customizations);
         }
 
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemListingService.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -93,10 +95,71 @@ public class ItemService {
         Item item = getItemByCode(code);
         item.setActive(false);
         itemRepository.save(item);
+        itemListingService.invalidate();
     }
 
     @Transactional(readOnly = true)
-    public List<Item> getItemsByType(ItemType type) {
-        return itemRepository.findByType(type);
+    public List<ItemView> getItemsByType(ItemType type) {
+        return toViews(itemRepository.findListingByType(type));
+    }
+
+    /**
+     * Builds the listing from the items with their categories plus one query
+     * each for size prices, customization links, customizations with their
+     * options and category item counts, however many items there are.
+     */
+    private List<ItemView> toViews(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<String> codes = items.stream().map(Item::getCode).toList();
+
+        Map<String, Map<String, Double>> sizePrices = new HashMap<>();
+        for (ItemSizePriceRow row : itemRepository.findSizePrices(codes)) {
+            sizePrices.computeIfAbsent(row.getItemCode(), code -> new TreeMap<>()).put(row.getSize(), row.getPrice());
+        }
+
+        Map<String, List<Long>> customizationIds = new HashMap<>();
+        Set<Long> linked = new HashSet<>();
+        for (ItemCustomizationRow row : itemRepository.findCustomizationLinks(codes)) {
+            customizationIds.computeIfAbsent(row.getItemCode(), code -> new ArrayList<>()).add(row.getCustomizationId());
+            linked.add(row.getCustomizationId());
+        }
+        Map<Long, ItemView.CustomizationView> customizations = new HashMap<>();
+        if (!linked.isEmpty()) {
+            for (Customization customization : customizationRepository.findAllWithOptionsByIdIn(linked)) {
+                customizations.put(customization.getId(), toView(customization));
+            }
+        }
+
+        Set<String> categoryIds = items.stream().map(item -> item.getCategory().getId()).collect(Collectors.toSet());
+        Map<String, Long> itemCounts = new HashMap<>();
+        for (CategoryItemCountRow row : itemRepository.countByCategoryIds(categoryIds)) {
+            itemCounts.put(row.getCategoryId(), row.getItemCount());
+        }
+
+        List<ItemView> views = new ArrayList<>(items.size());
+        for (Item item : items) {
+            Category category = item.getCategory();
+            ItemView.CategoryView categoryView = new ItemView.CategoryView(category.getId(), category.getName(),
+                category.getDescription(), category.isActive(), category.getItemType(),
+                itemCounts.getOrDefault(category.getId(), 0L));
+            List<ItemView.CustomizationView> available = customizationIds.getOrDefault(item.getCode(), List.of()).stream()
+                .map(customizations::get)
+                .toList();
+            views.add(new ItemView(item.getCode(), item.getName(), categoryView, item.getBasePrice(),
+                sizePrices.getOrDefault(item.getCode(), Map.of()), available, item.getType(),
+                item.getDescription(), item.isActive()));
+        }
+        return views;
+    }
+
+    private static ItemView.CustomizationView toView(Customization customization) {
+        List<ItemView.OptionView> options = customization.getOptions().stream()
+            .sorted(Comparator.comparing(CustomizationOption::getId))
+            .map(option -> new ItemView.OptionView(option.getId(), option.getName(), option.getPrice()))
+            .toList();
+        return new ItemView.CustomizationView(customization.getId(), customization.getName(),
+            customization.getDescription(), customization.getApplicableType(), options);
     }
 }
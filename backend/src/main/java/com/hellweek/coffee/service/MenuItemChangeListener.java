@@ -0,0 +1,28 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.MenuItem;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates the menu snapshot on every write to {@link MenuItem}, whichever
+ * code path performed it.
+ */
+@Component
+public class MenuItemChangeListener {
+    private final MenuSnapshotService menuSnapshotService;
+
+    public MenuItemChangeListener(@Lazy MenuSnapshotService menuSnapshotService) {
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onMenuItemChange(MenuItem menuItem) {
+        menuSnapshotService.invalidate();
+    }
+}
@@ -0,0 +1,110 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.Centavos;
+import com.hellweek.coffee.model.MenuItem;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only copy of the menu pricing tables, keyed by menu item code.
+ * Instances are never mutated; a menu change produces a new snapshot.
+ */
+@Getter
+public class MenuSnapshot {
+    public static final MenuSnapshot EMPTY = new MenuSnapshot(0, 0, Collections.emptyMap());
+
+    private final long version;
+    private final long generation;
+    private final LocalDateTime builtAt;
+    private final Map<String, Entry> entries;
+
+    public MenuSnapshot(long version, long generation, Map<String, Entry> entries) {
+        this.version = version;
+        this.generation = generation;
+        this.builtAt = LocalDateTime.now();
+        this.entries = Collections.unmodifiableMap(new HashMap<>(entries));
+    }
+
+    public Entry get(String code) {
+        return entries.get(code);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * One menu item's prices compiled to whole centavos, so pricing a line
+     * neither boxes nor allocates.
+     */
+    @Value
+    public static class Entry {
+        Long id;
+        String code;
+        String name;
+        String category;
+        boolean available;
+        long basePriceCentavos;
+        @Getter(AccessLevel.NONE) PriceTable sizePrices;
+        @Getter(AccessLevel.NONE) PriceTable customizationPrices;
+
+        public static Entry of(MenuItem menuItem) {
+            long basePrice = Centavos.of(menuItem.getBasePrice());
+            Map<String, Long> sizePrices = new HashMap<>();
+            menuItem.getSizePriceAdjustments().forEach((size, adjustment) ->
+                sizePrices.put(size, basePrice + Centavos.of(adjustment)));
+            Map<String, Long> customizationPrices = new HashMap<>();
+            menuItem.getCustomizationPriceAdjustments().forEach((customization, price) ->
+                customizationPrices.put(customization, Centavos.of(price)));
+
+            return new Entry(
+                menuItem.getId(),
+                menuItem.getCode(),
+                menuItem.getName(),
+                menuItem.getCategory(),
+                menuItem.isAvailable(),
+                basePrice,
+                PriceTable.of(sizePrices),
+                PriceTable.of(customizationPrices)
+            );
+        }
+
+        /**
+         * Unit price of one order line: the size price plus every
+         * customization. Unknown sizes fall back to the base price and
+         * unknown customizations are free, as before.
+         */
+        public long unitPriceCentavos(String size, List<String> customizations) {
+            long price = sizePriceCentavos(size);
+            if (customizations != null) {
+                for (String customization : customizations) {
+                    price += customizationPriceCentavos(customization);
+                }
+            }
+            return price;
+        }
+
+        public long sizePriceCentavos(String size) {
+            return sizePrices.get(size, basePriceCentavos);
+        }
+
+        public long customizationPriceCentavos(String customization) {
+            return customizationPrices.get(customization, 0);
+        }
+
+        public double getPriceForSize(String size) {
+            return Centavos.toAmount(sizePriceCentavos(size));
+        }
+
+        public double getCustomizationPrice(String customization) {
+            return Centavos.toAmount(customizationPriceCentavos(customization));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.repository.MenuItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class MenuSnapshotService {
+    private final MenuItemRepository menuItemRepository;
+    private final TransactionTemplate rebuildTemplate;
+
+    private final AtomicReference<MenuSnapshot> snapshot = new AtomicReference<>(MenuSnapshot.EMPTY);
+    private final AtomicLong generation = new AtomicLong(1);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    // Not synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile long lastRebuildMillis;
+
+    public MenuSnapshotService(MenuItemRepository menuItemRepository, PlatformTransactionManager transactionManager) {
+        this.menuItemRepository = menuItemRepository;
+        this.rebuildTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    public MenuSnapshot current() {
+        MenuSnapshot current = snapshot.get();
+        if (current.getGeneration() == generation.get()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Resolves a batch of codes at once. Codes missing from the snapshot are
+     * looked up together in a single fetch-joined query; a hit there means the
+     * snapshot has fallen behind the database, so it is invalidated as well.
+     * Codes that exist nowhere are absent from the returned map.
+     */
+    public Map<String, MenuSnapshot.Entry> lookupAll(Collection<String> codes) {
+        MenuSnapshot current = current();
+        Map<String, MenuSnapshot.Entry> resolved = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String code : codes) {
+            MenuSnapshot.Entry entry = current.get(code);
+            if (entry != null) {
+                resolved.put(code, entry);
+            } else {
+                missing.add(code);
+            }
+        }
+        hits.add(resolved.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            List<MenuItem> loaded = menuItemRepository.findAllWithPricesByCodeIn(missing);
+            for (MenuItem menuItem : loaded) {
+                resolved.put(menuItem.getCode(), MenuSnapshot.Entry.of(menuItem));
+            }
+            if (!loaded.isEmpty()) {
+                invalidate();
+            }
+        }
+        return resolved;
+    }
+
+    public MenuSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            long target = generation.get();
+            MenuSnapshot current = snapshot.get();
+            if (current.getGeneration() == target) {
+                return current;
+            }
+
+            long start = System.nanoTime();
+            Map<String, MenuSnapshot.Entry> entries = rebuildTemplate.execute(status -> {
+                Map<String, MenuSnapshot.Entry> loaded = new HashMap<>();
+                for (MenuItem menuItem : menuItemRepository.findAllWithPrices()) {
+                    loaded.put(menuItem.getCode(), MenuSnapshot.Entry.of(menuItem));
+                }
+                return loaded;
+            });
+
+            MenuSnapshot rebuilt = new MenuSnapshot(current.getVersion() + 1, target, entries);
+            snapshot.set(rebuilt);
+            rebuilds.increment();
+            lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the current snapshot as stale. When called inside a transaction the
+     * invalidation is deferred until commit so a rebuild never reads uncommitted
+     * or rolled-back menu data.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        MenuSnapshot current = snapshot.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("version", current.getVersion());
+        stats.put("builtAt", current.getBuiltAt());
+        stats.put("items", current.size());
+        stats.put("stale", current.getGeneration() != generation.get());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        return stats;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hellweek.coffee.service;
+
+import java.util.Map;
+
+/**
+ * Maps size or customization names to prices in whole centavos without
+ * boxing. Open-addressed and kept at most half full, so a lookup usually
+ * settles on its first slot.
+ */
+final class PriceTable {
+    private final String[] names;
+    private final int[] hashes;
+    private final long[] prices;
+    private final int mask;
+
+    private PriceTable(int capacity) {
+        names = new String[capacity];
+        hashes = new int[capacity];
+        prices = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    static PriceTable of(Map<String, Long> pricesByName) {
+        int capacity = Integer.highestOneBit(Math.max(1, pricesByName.size()) * 2 - 1) << 1;
+        PriceTable table = new PriceTable(capacity);
+        pricesByName.forEach((name, price) -> {
+            int hash = name.hashCode();
+            int slot = spread(hash) & table.mask;
+            while (table.names[slot] != null) {
+                slot = (slot + 1) & table.mask;
+            }
+            table.names[slot] = name;
+            table.hashes[slot] = hash;
+            table.prices[slot] = price;
+        });
+        return table;
+    }
+
+    long get(String name, long missing) {
+        if (name == null) {
+            return missing;
+        }
+        int hash = name.hashCode();
+        for (int slot = spread(hash) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && names[slot].equals(name)) {
+                return prices[slot];
+            }
+        }
+        return missing;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,484 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.SalesLineRow;
+import com.hellweek.coffee.model.Centavos;
+import com.hellweek.coffee.model.OrderItem;
+import com.hellweek.coffee.model.PaymentMethod;
+import com.hellweek.coffee.model.Transaction;
+import com.hellweek.coffee.repository.TransactionRepository;
+import lombok.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Every completed transaction held in memory as parallel primitive columns,
+ * so sales can be sliced by hour, menu item, payment method and cashier
+ * without touching the database or hydrating entities.
+ *
+ * <p>Transactions are stored as epoch minute, total in centavos, units sold,
+ * payment method ordinal and cashier, each pointing at a run of lines holding
+ * menu item, quantity and line revenue in centavos. Menu items and cashiers are
+ * dictionary-encoded to dense ordinals, so grouping by them indexes a plain
+ * array. The columns are loaded from the database once the app is up and
+ * appended to as transactions complete. Readers scan an immutable view over
+ * the columns; appends fill the slots past it and publish a new one.
+ */
+@Service
+public class SalesColumnStore {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+    private static final int ANY = Integer.MIN_VALUE;
+    private static final int UNKNOWN = -2;
+    private static final int NO_CASHIER = -1;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate loadTemplate;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Guarded by appendLock; completions that commit while loading wait in pending
+    private Columns columns = new Columns();
+    private List<Completion> pending = new ArrayList<>();
+    private volatile View view = columns.view();
+    private volatile long loadMillis = -1;
+
+    public SalesColumnStore(TransactionRepository transactionRepository, PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads every completed transaction. Completions that commit meanwhile are
+     * held back and appended afterwards unless the load already read them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startTime = System.nanoTime();
+        Columns loaded = new Columns();
+        loadTemplate.executeWithoutResult(status -> {
+            try (Stream<SalesLineRow> rows = transactionRepository.streamCompletedSalesLines()) {
+                rows.forEach(loaded::add);
+            }
+        });
+
+        appendLock.lock();
+        try {
+            // Loaded in id order, so the ids read can be binary searched
+            int loadedTransactions = loaded.transactions;
+            for (Completion completion : pending) {
+                if (Arrays.binarySearch(loaded.transactionIds, 0, loadedTransactions, completion.getTransactionId()) < 0) {
+                    loaded.add(completion);
+                }
+            }
+            columns = loaded;
+            pending = null;
+            view = loaded.view();
+            loadMillis = (System.nanoTime() - startTime) / 1_000_000;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a completed transaction once its transaction commits, so a
+     * rolled-back completion never shows up in the columns.
+     */
+    public void recordCompletion(Transaction transaction) {
+        Completion completion = Completion.of(transaction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(completion);
+                }
+            });
+        } else {
+            append(completion);
+        }
+    }
+
+    private void append(Completion completion) {
+        appendLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(completion);
+            } else {
+                columns.add(completion);
+                view = columns.view();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Completed sales in [start, end), resolved to the minute, grouped by one
+     * dimension and optionally narrowed to a payment method, cashier or menu
+     * item. Grouping by item or filtering on one counts the matching lines:
+     * quantity and revenue are theirs, and a transaction counts once per group
+     * it has a matching line in. Otherwise revenue is the transaction totals.
+     */
+    public Map<String, Object> slice(LocalDateTime start, LocalDateTime end, Dimension groupBy,
+                                     PaymentMethod paymentMethod, Long cashierId, Long menuItemId) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End must be after start");
+        }
+        View snapshot = view;
+        if (loadMillis < 0) {
+            throw new IllegalStateException("Sales columns are still loading");
+        }
+
+        long startTime = System.nanoTime();
+        int from = Math.max(minuteOf(start), snapshot.getMinMinute());
+        int to = Math.min(minuteOf(end), snapshot.getMaxMinute() + 1);
+        int payment = paymentMethod == null ? ANY : paymentMethod.ordinal();
+        int cashier = cashierId == null ? ANY : ordinalOf(snapshot.getCashierIds(), snapshot.getCashierCount(), cashierId);
+        int item = menuItemId == null ? ANY : ordinalOf(snapshot.getItemIds(), snapshot.getItemCount(), menuItemId);
+        boolean byLine = groupBy == Dimension.ITEM || item != ANY;
+
+        int firstHour = Math.floorDiv(from, 60);
+        int groups;
+        switch (groupBy) {
+            case HOUR:
+                groups = to > from ? Math.floorDiv(to - 1, 60) - firstHour + 1 : 0;
+                break;
+            case ITEM:
+                groups = snapshot.getItemCount();
+                break;
+            case PAYMENT_METHOD:
+                groups = PAYMENT_METHODS.length;
+                break;
+            default:
+                // Group 0 holds transactions without a cashier
+                groups = snapshot.getCashierCount() + 1;
+        }
+
+        long[] transactionCounts = new long[groups];
+        long[] quantities = new long[groups];
+        long[] revenues = new long[groups];
+        int[] lastTransaction = new int[groups];
+        Arrays.fill(lastTransaction, -1);
+
+        int[] minutes = snapshot.getMinutes();
+        byte[] paymentMethods = snapshot.getPaymentMethods();
+        int[] cashiers = snapshot.getCashiers();
+        long[] totals = snapshot.getTotals();
+        int[] units = snapshot.getUnits();
+        int[] lineEnds = snapshot.getLineEnds();
+        int[] items = snapshot.getItems();
+        int[] lineQuantities = snapshot.getQuantities();
+        long[] lineRevenues = snapshot.getRevenues();
+        int transactions = snapshot.getTransactions();
+        long matched = 0;
+
+        // An unknown cashier or item matches nothing
+        if (cashier != UNKNOWN && item != UNKNOWN) {
+            for (int t = 0; t < transactions; t++) {
+                int minute = minutes[t];
+                if (minute < from || minute >= to
+                        || (payment != ANY && paymentMethods[t] != payment)
+                        || (cashier != ANY && cashiers[t] != cashier)) {
+                    continue;
+                }
+                int group;
+                switch (groupBy) {
+                    case HOUR:
+                        group = Math.floorDiv(minute, 60) - firstHour;
+                        break;
+                    case PAYMENT_METHOD:
+                        group = paymentMethods[t];
+                        break;
+                    case CASHIER:
+                        group = cashiers[t] + 1;
+                        break;
+                    default:
+                        group = -1;
+                }
+                if (byLine) {
+                    boolean hit = false;
+                    int endLine = lineEnds[t];
+                    for (int l = t == 0 ? 0 : lineEnds[t - 1]; l < endLine; l++) {
+                        if (item != ANY && items[l] != item) {
+                            continue;
+                        }
+                        int g = group < 0 ? items[l] : group;
+                        quantities[g] += lineQuantities[l];
+                        revenues[g] += lineRevenues[l];
+                        if (lastTransaction[g] != t) {
+                            lastTransaction[g] = t;
+                            transactionCounts[g]++;
+                        }
+                        hit = true;
+                    }
+                    if (hit) {
+                        matched++;
+                    }
+                } else {
+                    matched++;
+                    transactionCounts[group]++;
+                    quantities[group] += units[t];
+                    revenues[group] += totals[t];
+                }
+            }
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long totalQuantity = 0;
+        long totalRevenue = 0;
+        for (int g = 0; g < groups; g++) {
+            if (transactionCounts[g] == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("key", keyOf(groupBy, g, firstHour, snapshot));
+            row.put("transactions", transactionCounts[g]);
+            row.put("quantity", quantities[g]);
+            row.put("revenue", Centavos.toAmount(revenues[g]));
+            rows.add(row);
+            totalQuantity += quantities[g];
+            totalRevenue += revenues[g];
+        }
+        if (groupBy != Dimension.HOUR) {
+            rows.sort(Comparator.comparing((Map<String, Object> row) -> (Double) row.get("revenue")).reversed());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("start", start);
+        result.put("end", end);
+        result.put("groupBy", groupBy);
+        result.put("rows", rows);
+        result.put("transactions", matched);
+        result.put("quantity", totalQuantity);
+        result.put("revenue", Centavos.toAmount(totalRevenue));
+        result.put("scannedTransactions", transactions);
+        result.put("scannedLines", snapshot.getLines());
+        result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        View current = view;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("loaded", loadMillis >= 0);
+        stats.put("loadMillis", loadMillis);
+        stats.put("transactions", current.getTransactions());
+        stats.put("lines", current.getLines());
+        stats.put("menuItems", current.getItemCount());
+        stats.put("cashiers", current.getCashierCount());
+        stats.put("bytes", current.bytes());
+        return stats;
+    }
+
+    private static Object keyOf(Dimension groupBy, int group, int firstHour, View snapshot) {
+        switch (groupBy) {
+            case HOUR:
+                return LocalDateTime.ofEpochSecond((firstHour + group) * 3600L, 0, ZoneOffset.UTC);
+            case ITEM:
+                return snapshot.getItemIds()[group];
+            case PAYMENT_METHOD:
+                return PAYMENT_METHODS[group];
+            default:
+                return group == 0 ? null : snapshot.getCashierIds()[group - 1];
+        }
+    }
+
+    private static int ordinalOf(long[] ids, int count, long id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    // Dates are local wall-clock times, so they are counted as if they were UTC
+    static int minuteOf(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    public enum Dimension {
+        HOUR, ITEM, PAYMENT_METHOD, CASHIER
+    }
+
+    /**
+     * What a completion contributes, taken from the entity before commit so
+     * the append afterwards touches no persistence context.
+     */
+    @Value
+    static class Completion {
+        long transactionId;
+        int minute;
+        long total;
+        PaymentMethod paymentMethod;
+        Long cashierId;
+        long[] menuItemIds;
+        int[] quantities;
+        long[] revenues;
+
+        static Completion of(Transaction transaction) {
+            List<OrderItem> lines = transaction.getItems();
+            long[] menuItemIds = new long[lines.size()];
+            int[] quantities = new int[lines.size()];
+            long[] revenues = new long[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                OrderItem line = lines.get(i);
+                menuItemIds[i] = line.getMenuItem().getId();
+                quantities[i] = line.getQuantity();
+                revenues[i] = Centavos.of(line.getUnitPrice()) * line.getQuantity();
+            }
+            return new Completion(transaction.getId(), minuteOf(transaction.getTransactionDate()),
+                Centavos.of(transaction.getTotal()), transaction.getPaymentMethod(),
+                transaction.getCashier() == null ? null : transaction.getCashier().getId(),
+                menuItemIds, quantities, revenues);
+        }
+    }
+
+    /**
+     * The growable columns. Only the thread holding the append lock, or the
+     * loader before it publishes, writes them; slots are filled before the
+     * counts that expose them are published in a view.
+     */
+    static class Columns {
+        int transactions;
+        int lines;
+        long[] transactionIds = new long[INITIAL_CAPACITY];
+        int[] minutes = new int[INITIAL_CAPACITY];
+        long[] totals = new long[INITIAL_CAPACITY];
+        int[] units = new int[INITIAL_CAPACITY];
+        byte[] paymentMethods = new byte[INITIAL_CAPACITY];
+        int[] cashiers = new int[INITIAL_CAPACITY];
+        int[] lineEnds = new int[INITIAL_CAPACITY];
+        int[] items = new int[INITIAL_CAPACITY];
+        int[] quantities = new int[INITIAL_CAPACITY];
+        long[] revenues = new long[INITIAL_CAPACITY];
+        int minMinute = Integer.MAX_VALUE;
+        int maxMinute = Integer.MIN_VALUE;
+        final Dictionary itemIds = new Dictionary();
+        final Dictionary cashierIds = new Dictionary();
+        private long lastTransactionId = Long.MIN_VALUE;
+
+        void add(SalesLineRow row) {
+            if (row.getTransactionId() != lastTransactionId) {
+                lastTransactionId = row.getTransactionId();
+                startTransaction(row.getTransactionId(), minuteOf(row.getTransactionDate()),
+                    Centavos.of(row.getTransactionTotal()), row.getPaymentMethod(), row.getCashierId());
+            }
+            if (row.getMenuItemId() != null) {
+                addLine(row.getMenuItemId(), row.getQuantity(), Centavos.of(row.getUnitPrice()) * row.getQuantity());
+            }
+        }
+
+        void add(Completion completion) {
+            startTransaction(completion.getTransactionId(), completion.getMinute(), completion.getTotal(),
+                completion.getPaymentMethod(), completion.getCashierId());
+            for (int i = 0; i < completion.getMenuItemIds().length; i++) {
+                addLine(completion.getMenuItemIds()[i], completion.getQuantities()[i], completion.getRevenues()[i]);
+            }
+        }
+
+        void startTransaction(long id, int minute, long total, PaymentMethod paymentMethod, Long cashierId) {
+            if (transactions == minutes.length) {
+                int capacity = transactions * 2;
+                transactionIds = Arrays.copyOf(transactionIds, capacity);
+                minutes = Arrays.copyOf(minutes, capacity);
+                totals = Arrays.copyOf(totals, capacity);
+                units = Arrays.copyOf(units, capacity);
+                paymentMethods = Arrays.copyOf(paymentMethods, capacity);
+                cashiers = Arrays.copyOf(cashiers, capacity);
+                lineEnds = Arrays.copyOf(lineEnds, capacity);
+            }
+            transactionIds[transactions] = id;
+            minutes[transactions] = minute;
+            totals[transactions] = total;
+            units[transactions] = 0;
+            paymentMethods[transactions] = (byte) paymentMethod.ordinal();
+            cashiers[transactions] = cashierId == null ? NO_CASHIER : cashierIds.ordinal(cashierId);
+            lineEnds[transactions] = lines;
+            transactions++;
+            minMinute = Math.min(minMinute, minute);
+            maxMinute = Math.max(maxMinute, minute);
+        }
+
+        void addLine(long menuItemId, int quantity, long revenue) {
+            if (lines == items.length) {
+                int capacity = lines * 2;
+                items = Arrays.copyOf(items, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                revenues = Arrays.copyOf(revenues, capacity);
+            }
+            items[lines] = itemIds.ordinal(menuItemId);
+            quantities[lines] = quantity;
+            revenues[lines] = revenue;
+            lines++;
+            units[transactions - 1] += quantity;
+            lineEnds[transactions - 1] = lines;
+        }
+
+        View view() {
+            return new View(transactions, lines, minutes, totals, units, paymentMethods, cashiers, lineEnds,
+                items, quantities, revenues, minMinute, maxMinute,
+                itemIds.ids, itemIds.size, cashierIds.ids, cashierIds.size);
+        }
+    }
+
+    static class Dictionary {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        long[] ids = new long[64];
+        int size;
+
+        int ordinal(long id) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = id;
+            ordinals.put(id, size);
+            return size++;
+        }
+    }
+
+    /**
+     * A consistent prefix of the columns. Appends only write past its counts,
+     * and growing the columns copies them, so a view never changes once taken.
+     */
+    @Value
+    static class View {
+        int transactions;
+        int lines;
+        int[] minutes;
+        long[] totals;
+        int[] units;
+        byte[] paymentMethods;
+        int[] cashiers;
+        int[] lineEnds;
+        int[] items;
+        int[] quantities;
+        long[] revenues;
+        int minMinute;
+        int maxMinute;
+        long[] itemIds;
+        int itemCount;
+        long[] cashierIds;
+        int cashierCount;
+
+        // Allocated capacity: id, total, minute, units, payment method, cashier and line
+        // end per transaction; item, quantity and revenue per line
+        long bytes() {
+            return (8 + 8 + 4 + 4 + 1 + 4 + 4) * (long) minutes.length + (4 + 4 + 8) * (long) items.length;
+        }
+    }
+}
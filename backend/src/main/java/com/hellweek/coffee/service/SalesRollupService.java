@@ -0,0 +1,241 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.HourlyItemSalesRow;
+import com.hellweek.coffee.dto.HourlySalesRow;
+import com.hellweek.coffee.model.*;
+import com.hellweek.coffee.repository.HourlyItemRollupRepository;
+import com.hellweek.coffee.repository.HourlySalesRollupRepository;
+import com.hellweek.coffee.repository.MenuItemRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Maintains hourly sales rollups: one row per (hour, payment method) with
+ * transaction count and revenue, and one row per (hour, menu item, payment
+ * method) with quantity and line revenue. Revenue is kept in whole centavos,
+ * so increments and sums are exact.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+    private final HourlySalesRollupRepository salesRollupRepository;
+    private final HourlyItemRollupRepository itemRollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final MenuItemRepository menuItemRepository;
+
+    private final StripedLocks stripes = new StripedLocks();
+
+    /**
+     * Adds a completed transaction to its hour's rollups. Rows are upserted as
+     * update-then-insert, so completions sharing an hour and payment method are
+     * serialized until commit to keep a concurrent insert from colliding.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletion(Transaction transaction) {
+        recordCompletions(List.of(transaction));
+    }
+
+    /**
+     * Adds a batch of completed transactions to the rollups, summed per row
+     * first. Their stripes are taken in index order, so a batch never waits on
+     * a completion that is waiting on it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletions(Collection<Transaction> transactions) {
+        Rollups rollups = new Rollups();
+        transactions.forEach(rollups::add);
+
+        stripes.lockUntilCompletion(rollups.getSales().keySet());
+
+        rollups.getSales().forEach((salesKey, totals) -> {
+            if (salesRollupRepository.increment(salesKey.getBucketHour(), salesKey.getPaymentMethod().name(),
+                    totals.getCount(), totals.getRevenueCentavos()) == 0) {
+                salesRollupRepository.save(newSalesRollup(salesKey, totals));
+            }
+        });
+        rollups.getItems().forEach((itemKey, totals) -> {
+            if (itemRollupRepository.increment(itemKey.getBucketHour(), itemKey.getMenuItemId(),
+                    itemKey.getPaymentMethod().name(), totals.getCount(), totals.getRevenueCentavos()) == 0) {
+                itemRollupRepository.save(newItemRollup(itemKey, totals));
+            }
+        });
+    }
+
+    /**
+     * Regenerates the rollups of every hour in [start, end) from the raw
+     * completed transactions, aggregated by the database, replacing whatever
+     * was stored.
+     */
+    @Transactional
+    public Map<String, Object> rebuild(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = bucketOf(start);
+        LocalDateTime to = bucketCeiling(end);
+        stripes.lockAllUntilCompletion();
+
+        long startTime = System.nanoTime();
+        Rollups rollups = recompute(from, to);
+
+        salesRollupRepository.deleteInRange(from, to);
+        itemRollupRepository.deleteInRange(from, to);
+        rollups.getSales().forEach((key, totals) -> salesRollupRepository.save(newSalesRollup(key, totals)));
+        rollups.getItems().forEach((key, totals) -> itemRollupRepository.save(newItemRollup(key, totals)));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("start", from);
+        result.put("end", to);
+        result.put("transactions", rollups.getTransactionCount());
+        result.put("salesRows", rollups.getSales().size());
+        result.put("itemRows", rollups.getItems().size());
+        result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Recomputes the rollups of [start, end) in memory and reports every row
+     * that differs from what is stored, without writing anything.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> verify(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = bucketOf(start);
+        LocalDateTime to = bucketCeiling(end);
+        Rollups expected = recompute(from, to);
+
+        Map<SalesKey, Totals> storedSales = new HashMap<>();
+        for (HourlySalesRollup row : salesRollupRepository.findInRange(from, to)) {
+            storedSales.put(new SalesKey(row.getBucketHour(), row.getPaymentMethod()),
+                new Totals(row.getTransactionCount(), row.getRevenueCentavos()));
+        }
+        Map<ItemKey, Totals> storedItems = new HashMap<>();
+        for (HourlyItemRollup row : itemRollupRepository.findInRange(from, to)) {
+            storedItems.put(new ItemKey(row.getBucketHour(), row.getMenuItem().getId(), row.getPaymentMethod()),
+                new Totals(row.getQuantity(), row.getRevenueCentavos()));
+        }
+
+        List<String> drift = new ArrayList<>();
+        diff(expected.getSales(), storedSales, drift);
+        diff(expected.getItems(), storedItems, drift);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("start", from);
+        result.put("end", to);
+        result.put("transactions", expected.getTransactionCount());
+        result.put("consistent", drift.isEmpty());
+        result.put("drift", drift);
+        return result;
+    }
+
+    private Rollups recompute(LocalDateTime from, LocalDateTime to) {
+        Rollups rollups = new Rollups();
+        for (HourlySalesRow row : transactionRepository.aggregateSalesByHour(from, to)) {
+            rollups.getSales().put(new SalesKey(row.getBucketHour(), row.getPaymentMethod()),
+                new Totals(row.getTransactionCount(), row.getRevenueCentavos()));
+            rollups.setTransactionCount(rollups.getTransactionCount() + row.getTransactionCount());
+        }
+        for (HourlyItemSalesRow row : transactionRepository.aggregateItemSalesByHour(from, to)) {
+            rollups.getItems().put(new ItemKey(row.getBucketHour(), row.getMenuItemId(), row.getPaymentMethod()),
+                new Totals(row.getQuantity(), row.getRevenueCentavos()));
+        }
+        return rollups;
+    }
+
+    private <K> void diff(Map<K, Totals> expected, Map<K, Totals> stored, List<String> drift) {
+        Set<K> keys = new HashSet<>(expected.keySet());
+        keys.addAll(stored.keySet());
+        for (K key : keys) {
+            Totals want = expected.getOrDefault(key, new Totals());
+            Totals have = stored.getOrDefault(key, new Totals());
+            if (!want.equals(have)) {
+                drift.add(key + ": expected " + want + ", stored " + have);
+            }
+        }
+    }
+
+    private HourlySalesRollup newSalesRollup(SalesKey key, Totals totals) {
+        HourlySalesRollup rollup = new HourlySalesRollup();
+        rollup.setBucketHour(key.getBucketHour());
+        rollup.setPaymentMethod(key.getPaymentMethod());
+        rollup.setTransactionCount(totals.getCount());
+        rollup.setRevenueCentavos(totals.getRevenueCentavos());
+        return rollup;
+    }
+
+    private HourlyItemRollup newItemRollup(ItemKey key, Totals totals) {
+        HourlyItemRollup rollup = new HourlyItemRollup();
+        rollup.setBucketHour(key.getBucketHour());
+        rollup.setMenuItem(menuItemRepository.getReferenceById(key.getMenuItemId()));
+        rollup.setPaymentMethod(key.getPaymentMethod());
+        rollup.setQuantity(totals.getCount());
+        rollup.setRevenueCentavos(totals.getRevenueCentavos());
+        return rollup;
+    }
+
+    static LocalDateTime bucketOf(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    static LocalDateTime bucketCeiling(LocalDateTime dateTime) {
+        LocalDateTime bucket = bucketOf(dateTime);
+        return bucket.equals(dateTime) ? bucket : bucket.plusHours(1);
+    }
+
+    @Value
+    static class SalesKey {
+        LocalDateTime bucketHour;
+        PaymentMethod paymentMethod;
+    }
+
+    @Value
+    static class ItemKey {
+        LocalDateTime bucketHour;
+        Long menuItemId;
+        PaymentMethod paymentMethod;
+    }
+
+    @Data
+    static class Totals {
+        private long count;
+        private long revenueCentavos;
+
+        Totals() {
+        }
+
+        Totals(long count, long revenueCentavos) {
+            this.count = count;
+            this.revenueCentavos = revenueCentavos;
+        }
+
+        void add(long count, long revenueCentavos) {
+            this.count += count;
+            this.revenueCentavos += revenueCentavos;
+        }
+    }
+
+    @Data
+    static class Rollups {
+        private final Map<SalesKey, Totals> sales = new HashMap<>();
+        private final Map<ItemKey, Totals> items = new HashMap<>();
+        private long transactionCount;
+
+        void add(Transaction transaction) {
+            LocalDateTime bucket = bucketOf(transaction.getTransactionDate());
+            PaymentMethod paymentMethod = transaction.getPaymentMethod();
+
+            sales.computeIfAbsent(new SalesKey(bucket, paymentMethod), key -> new Totals())
+                .add(1, Centavos.of(transaction.getTotal()));
+            for (OrderItem item : transaction.getItems()) {
+                items.computeIfAbsent(new ItemKey(bucket, item.getMenuItem().getId(), paymentMethod), key -> new Totals())
+                    .add(item.getQuantity(), Centavos.of(item.getUnitPrice()) * item.getQuantity());
+            }
+            transactionCount++;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues the bearer tokens clients send after logging in, so an authenticated
+ * request costs a map lookup instead of a BCrypt match and a user query.
+ *
+ * <p>A token is 32 random bytes, opaque to the client. Sessions are held in
+ * memory by token together with the ready-made {@link Authentication}, and
+ * that map is the only thing that makes a token valid: logging out or
+ * deactivating a user takes effect on the next request, and a restart signs
+ * everyone out.
+ */
+@Service
+public class SessionTokenService {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // Generation at which each user's sessions were last revoked
+    private final ConcurrentHashMap<Long, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public SessionTokenService(@Value("${hellweek.session.ttl:12h}") Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * To be read before loading the user a session is then issued for.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Starts a session for a user loaded after {@link #generation()} returned
+     * {@code seen}. If the user's sessions were revoked since, the user that
+     * was read may already be deactivated, so no session is issued.
+     */
+    public Session issue(User user, long seen) {
+        byte[] token = new byte[32];
+        random.nextBytes(token);
+        Session session = Session.of(ENCODER.encodeToString(token), user, System.currentTimeMillis() + ttl.toMillis());
+        sessions.put(session.getToken(), session);
+        // Checked after the put: a concurrent revocation either shows up here or purges this session
+        if (revokedAt.getOrDefault(user.getId(), Long.MIN_VALUE) > seen) {
+            sessions.remove(session.getToken(), session);
+            throw new IllegalStateException("User changed while signing in; sign in again");
+        }
+        return session;
+    }
+
+    /**
+     * The authentication a token stands for, or {@code null} if it is
+     * unknown, expired or revoked.
+     */
+    public Authentication authenticate(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(System.currentTimeMillis())) {
+            sessions.remove(token, session);
+            return null;
+        }
+        return session.getAuthentication();
+    }
+
+    public void revoke(String token) {
+        sessions.remove(token);
+    }
+
+    /**
+     * Ends every session of a user. Inside a transaction it runs again after
+     * commit, and a login that read the user before then is refused by
+     * {@link #issue}, so no session outlives the change.
+     */
+    public void revokeUser(Long userId) {
+        removeSessionsOf(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeSessionsOf(userId);
+                }
+            });
+        }
+    }
+
+    // Keeps open sessions on the user's current name and role
+    public void refreshUser(User user) {
+        sessions.replaceAll((token, session) ->
+            session.getUserId().equals(user.getId()) ? Session.of(token, user, session.getExpiresAt()) : session);
+    }
+
+    @Scheduled(fixedDelay = 10 * 60 * 1000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.isExpired(now));
+    }
+
+    private void removeSessionsOf(Long userId) {
+        revokedAt.put(userId, generation.incrementAndGet());
+        sessions.values().removeIf(session -> session.getUserId().equals(userId));
+    }
+
+    @lombok.Value
+    public static class Session {
+        String token;
+        Long userId;
+        long expiresAt;
+        Authentication authentication;
+
+        static Session of(String token, User user, long expiresAt) {
+            Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+            return new Session(token, user.getId(), expiresAt, authentication);
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
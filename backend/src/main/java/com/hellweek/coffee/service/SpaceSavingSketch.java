@@ -0,0 +1,97 @@
+package com.hellweek.coffee.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary: at most {@code capacity} monitored keys,
+ * each with a count that overestimates its true weight by no more than the
+ * error recorded with it. When the summary is full, a new key takes over the
+ * smallest counter and inherits its count as error, so no count is off by
+ * more than total weight / capacity. Not thread-safe.
+ */
+final class SpaceSavingSketch {
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> slots;
+    private int size;
+    private long total;
+
+    SpaceSavingSketch(int capacity) {
+        keys = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        slots = new HashMap<>(capacity * 2);
+    }
+
+    void add(String key, long weight) {
+        total += weight;
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += weight;
+            return;
+        }
+        if (size < keys.length) {
+            slot = size++;
+            errors[slot] = 0;
+        } else {
+            // Capacity is a few hundred at most, so a scan beats keeping a heap in step
+            slot = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[slot]) {
+                    slot = i;
+                }
+            }
+            slots.remove(keys[slot]);
+            errors[slot] = counts[slot];
+        }
+        keys[slot] = key;
+        counts[slot] += weight;
+        slots.put(key, slot);
+    }
+
+    /**
+     * The most an unmonitored key can have been added: zero until the summary
+     * fills, then the smallest count.
+     */
+    long floor() {
+        if (size < keys.length) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, counts[i]);
+        }
+        return min;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String key(int slot) {
+        return keys[slot];
+    }
+
+    long count(int slot) {
+        return counts[slot];
+    }
+
+    long error(int slot) {
+        return errors[slot];
+    }
+
+    long total() {
+        return total;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(counts, 0);
+        slots.clear();
+        size = 0;
+        total = 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hellweek.coffee.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks that keys hash onto, so writers of the same key are
+ * serialized without a lock per key. Stripes taken until completion are
+ * released when the surrounding transaction commits or rolls back.
+ */
+final class StripedLocks {
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    StripedLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock of(Object key) {
+        return locks[indexOf(key)];
+    }
+
+    /**
+     * Locks the stripes of all {@code keys} until the transaction completes.
+     * They are taken in index order, so two callers never each hold a stripe
+     * the other is waiting on.
+     */
+    void lockUntilCompletion(Collection<?> keys) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Object key : keys) {
+            indexes.add(indexOf(key));
+        }
+        for (int index : indexes) {
+            lockUntilCompletion(locks[index]);
+        }
+    }
+
+    void lockAllUntilCompletion() {
+        for (ReentrantLock lock : locks) {
+            lockUntilCompletion(lock);
+        }
+    }
+
+    private int indexOf(Object key) {
+        return Math.floorMod(key.hashCode(), locks.length);
+    }
+
+    private static void lockUntilCompletion(ReentrantLock lock) {
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,341 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellweek.coffee.dto.OrderTicket;
+import com.hellweek.coffee.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes order ticket changes to barista screens over server-sent events.
+ *
+ * <p>Events are published after the transaction commits, serialized once and
+ * numbered on a single dispatcher thread, so every screen sees events in the
+ * same order. The dispatcher never writes to a connection: each screen has
+ * its own outbox, drained by a sender thread, so a stalled screen only holds
+ * up itself. A screen whose outbox fills, or whose send has been blocked for
+ * {@code SEND_TIMEOUT}, is dropped and resumes on reconnect.
+ *
+ * <p>The last {@value #REPLAY_CAPACITY} events are kept for screens that
+ * reconnect with {@code Last-Event-ID}; a screen that fell further behind, or
+ * connects for the first time, gets a {@code snapshot} of all pending tickets
+ * instead. Event numbers start over when the application restarts, so an
+ * event id is {@code <bootId>-<number>} and an id from another boot always
+ * gets a snapshot. The snapshot is loaded on the subscribing request's thread and
+ * followed by every event numbered after it, so a ticket that changed while
+ * it loaded may arrive twice; screens key tickets by transaction id.
+ */
+@Service
+public class TicketStreamService {
+    static final int REPLAY_CAPACITY = 1024;
+    // Room for a snapshot and the whole replay buffer, so a resuming screen is never dropped on arrival
+    static final int SCREEN_BACKLOG = REPLAY_CAPACITY + 1;
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+    private static final TicketEvent HEARTBEAT = new TicketEvent(0, "heartbeat", null);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate snapshotTemplate;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-screen-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the dispatcher thread
+    private final Deque<TicketEvent> recent = new ArrayDeque<>();
+    private final List<Screen> screens = new ArrayList<>();
+    private long lastEventId;
+    private final String bootId = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+
+    public TicketStreamService(TransactionRepository transactionRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat,
+            HEARTBEAT_INTERVAL.toMillis(), HEARTBEAT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void publishCreated(OrderTicket ticket) {
+        publish("created", ticket);
+    }
+
+    public void publishCompleted(OrderTicket ticket) {
+        publish("completed", ticket);
+    }
+
+    /**
+     * Opens a stream for one screen, resuming after {@code lastEventId} when
+     * it was sent since the last restart and the events since then are still
+     * held.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        Screen screen = new Screen(emitter);
+        emitter.onCompletion(() -> {
+            screen.close();
+            if (!dispatcher.isShutdown()) {
+                dispatcher.execute(() -> screens.remove(screen));
+            }
+        });
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitter.complete());
+
+        try {
+            Long resumeAfter = numberOf(lastEventId);
+            boolean resume = resumeAfter != null
+                && CompletableFuture.supplyAsync(() -> canResumeAfter(resumeAfter), dispatcher).join();
+            long after;
+            TicketEvent snapshot = null;
+            if (resume) {
+                after = resumeAfter;
+            } else {
+                after = CompletableFuture.supplyAsync(() -> this.lastEventId, dispatcher).join();
+                snapshot = new TicketEvent(after, "snapshot", toJson(pendingTickets()));
+            }
+
+            TicketEvent first = snapshot;
+            dispatcher.execute(() -> {
+                boolean kept = first == null || screen.offer(first);
+                for (TicketEvent event : recent) {
+                    if (event.getId() > after) {
+                        kept &= screen.offer(event);
+                    }
+                }
+                if (kept) {
+                    screens.add(screen);
+                } else {
+                    drop(screen);
+                }
+            });
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private void publish(String type, OrderTicket ticket) {
+        String data = toJson(ticket);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.execute(() -> dispatch(type, data));
+                }
+            });
+        } else {
+            dispatcher.execute(() -> dispatch(type, data));
+        }
+    }
+
+    private void dispatch(String type, String data) {
+        TicketEvent event = new TicketEvent(++lastEventId, type, data);
+        recent.addLast(event);
+        if (recent.size() > REPLAY_CAPACITY) {
+            recent.removeFirst();
+        }
+
+        for (Iterator<Screen> it = screens.iterator(); it.hasNext(); ) {
+            Screen screen = it.next();
+            if (!screen.offer(event)) {
+                it.remove();
+                drop(screen);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        long now = System.nanoTime();
+        for (Iterator<Screen> it = screens.iterator(); it.hasNext(); ) {
+            Screen screen = it.next();
+            if (screen.isStalled(now) || !screen.offer(HEARTBEAT)) {
+                it.remove();
+                drop(screen);
+            }
+        }
+    }
+
+    // Completing waits for a send in progress, so it never runs on the dispatcher
+    private void drop(Screen screen) {
+        screen.close();
+        senders.execute(screen.emitter::complete);
+    }
+
+    // The number of an event id sent since this boot, or null for any other id
+    Long numberOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(bootId + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(bootId.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    String eventIdOf(long number) {
+        return bootId + "-" + number;
+    }
+
+    private boolean canResumeAfter(long eventId) {
+        if (eventId > lastEventId) {
+            // Never sent
+            return false;
+        }
+        long oldestHeld = recent.isEmpty() ? lastEventId + 1 : recent.getFirst().getId();
+        return eventId >= oldestHeld - 1;
+    }
+
+    private List<OrderTicket> pendingTickets() {
+        return snapshotTemplate.execute(status -> transactionRepository.findByStatusOrderByTransactionDateDesc("PENDING")
+            .stream()
+            .map(transaction -> OrderTicket.of(transaction, item -> item.getMenuItem().getName()))
+            .collect(Collectors.toList()));
+    }
+
+    private void send(SseEmitter emitter, TicketEvent event) throws IOException {
+        if (event == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+        emitter.send(SseEmitter.event()
+            .id(eventIdOf(event.getId()))
+            .name(event.getType())
+            .data(event.getData()));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize ticket", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        screens.forEach(screen -> screen.emitter.complete());
+    }
+
+    /**
+     * One connected screen and the events queued for it. At most one sender
+     * drains the outbox at a time, so the screen gets events in order.
+     */
+    private class Screen {
+        final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<TicketEvent> outbox = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private volatile long sendingSince;
+
+        Screen(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues an event; false once the screen is closed or has fallen
+         * {@value #SCREEN_BACKLOG} events behind.
+         */
+        boolean offer(TicketEvent event) {
+            lock.lock();
+            try {
+                if (closed || outbox.size() >= SCREEN_BACKLOG) {
+                    return false;
+                }
+                outbox.addLast(event);
+                if (draining) {
+                    return true;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            senders.execute(this::drain);
+            return true;
+        }
+
+        boolean isStalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > SEND_TIMEOUT.toNanos();
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                outbox.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                TicketEvent event;
+                lock.lock();
+                try {
+                    event = closed ? null : outbox.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                sendingSince = System.nanoTime();
+                try {
+                    send(emitter, event);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    emitter.complete();
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+        }
+    }
+
+    @Value
+    static class TicketEvent {
+        long id;
+        String type;
+        String data;
+    }
+}
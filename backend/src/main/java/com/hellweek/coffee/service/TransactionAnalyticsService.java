@@ -1,6 +1,10 @@
 package com.hellweek.coffee.service;
 
+import com.hellweek.coffee.dto.HourlySalesRow;
+import com.hellweek.coffee.dto.ItemSalesSummary;
 import com.hellweek.coffee.model.*;
+import com.hellweek.coffee.repository.HourlyItemRollupRepository;
+import com.hellweek.coffee.repository.HourlySalesRollupRepository;
 import com.hellweek.coffee.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -13,92 +17,97 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class TransactionAnalyticsService {
+    private final HourlySalesRollupRepository salesRollupRepository;
+    private final HourlyItemRollupRepository itemRollupRepository;
     private final TransactionRepository transactionRepository;
+    private final UniqueCustomerService uniqueCustomerService;
 
     @Transactional(readOnly = true)
     public Map<String, Object> generateDailySalesReport(LocalDateTime date) {
         LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        List<Transaction> transactions = transactionRepository
-            .findCompletedTransactionsInDateRange(startOfDay, endOfDay);
-
-        Map<String, Object> report = new HashMap<>();
+        Map<String, Object> report = generateSalesReport(startOfDay, endOfDay);
         report.put("date", date.toLocalDate());
-        report.put("totalTransactions", transactions.size());
-        report.put("totalRevenue", calculateTotalRevenue(transactions));
-        report.put("averageTransactionValue", calculateAverageTransactionValue(transactions));
-        report.put("itemsSold", calculateItemsSold(transactions));
-        report.put("popularItems", findPopularItems(transactions));
-        report.put("paymentMethods", analyzePaymentMethods(transactions));
-        report.put("hourlyRevenue", analyzeHourlyRevenue(transactions));
-
+        report.put("uniqueCustomers", uniqueCustomerService.estimate(startOfDay, endOfDay));
         return report;
     }
 
-    private double calculateTotalRevenue(List<Transaction> transactions) {
-        return transactions.stream()
-            .mapToDouble(Transaction::getTotal)
-            .sum();
+    @Transactional(readOnly = true)
+    public Map<String, Object> generateSalesReport(LocalDateTime start, LocalDateTime end) {
+        List<HourlySalesRow> sales = salesRollupRepository.findInRange(start, end).stream()
+            .map(rollup -> new HourlySalesRow(rollup.getBucketHour(), rollup.getPaymentMethod(),
+                rollup.getTransactionCount(), rollup.getRevenueCentavos()))
+            .collect(Collectors.toList());
+        return buildReport(start, end, sales, itemRollupRepository.summarizeItemsInRange(start, end));
     }
 
-    private double calculateAverageTransactionValue(List<Transaction> transactions) {
-        if (transactions.isEmpty()) return 0.0;
-        return calculateTotalRevenue(transactions) / transactions.size();
+    /**
+     * Same report as {@link #generateSalesReport}, aggregated by the database
+     * straight from the completed transactions instead of the rollups. Kept
+     * to check the rollups against.
+     */
+    @Transactional(readOnly = true)
+    Map<String, Object> generateSalesReportFromTransactions(LocalDateTime start, LocalDateTime end) {
+        return buildReport(start, end,
+            transactionRepository.aggregateSalesByHour(start, end),
+            transactionRepository.summarizeItemsInRange(start, end));
     }
 
-    private Map<String, Integer> calculateItemsSold(List<Transaction> transactions) {
+    private Map<String, Object> buildReport(LocalDateTime start, LocalDateTime end,
+                                            List<HourlySalesRow> sales, List<ItemSalesSummary> items) {
+        int totalTransactions = (int) sales.stream().mapToLong(HourlySalesRow::getTransactionCount).sum();
+        double totalRevenue = Centavos.toAmount(sales.stream().mapToLong(HourlySalesRow::getRevenueCentavos).sum());
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("startDate", start);
+        report.put("endDate", end);
+        report.put("totalTransactions", totalTransactions);
+        report.put("totalRevenue", totalRevenue);
+        report.put("averageTransactionValue", totalTransactions == 0 ? 0.0 : totalRevenue / totalTransactions);
+        report.put("itemsSold", calculateItemsSold(items));
+        report.put("popularItems", findPopularItems(items));
+        report.put("paymentMethods", analyzePaymentMethods(sales));
+        report.put("hourlyRevenue", analyzeHourlyRevenue(sales));
+
+        return report;
+    }
+
+    private Map<String, Integer> calculateItemsSold(List<ItemSalesSummary> items) {
         Map<String, Integer> itemsSold = new HashMap<>();
-        
-        for (Transaction transaction : transactions) {
-            for (OrderItem item : transaction.getItems()) {
-                String itemName = item.getMenuItem().getName();
-                itemsSold.merge(itemName, item.getQuantity(), Integer::sum);
-            }
+        for (ItemSalesSummary item : items) {
+            itemsSold.merge(item.getName(), item.getQuantity().intValue(), Integer::sum);
         }
-        
         return itemsSold;
     }
 
-    private List<Map<String, Object>> findPopularItems(List<Transaction> transactions) {
-        Map<MenuItem, Integer> itemFrequency = new HashMap<>();
-        Map<MenuItem, Double> itemRevenue = new HashMap<>();
-
-        for (Transaction transaction : transactions) {
-            for (OrderItem item : transaction.getItems()) {
-                MenuItem menuItem = item.getMenuItem();
-                itemFrequency.merge(menuItem, item.getQuantity(), Integer::sum);
-                itemRevenue.merge(menuItem, item.getUnitPrice() * item.getQuantity(), Double::sum);
-            }
-        }
-
-        return itemFrequency.entrySet().stream()
-            .map(entry -> {
+    private List<Map<String, Object>> findPopularItems(List<ItemSalesSummary> items) {
+        return items.stream()
+            .sorted(Comparator.comparing(ItemSalesSummary::getQuantity).reversed())
+            .limit(10)
+            .map(item -> {
                 Map<String, Object> itemStats = new HashMap<>();
-                MenuItem menuItem = entry.getKey();
-                itemStats.put("name", menuItem.getName());
-                itemStats.put("quantity", entry.getValue());
-                itemStats.put("revenue", itemRevenue.get(menuItem));
+                itemStats.put("name", item.getName());
+                itemStats.put("quantity", item.getQuantity().intValue());
+                itemStats.put("revenue", Centavos.toAmount(item.getRevenueCentavos()));
                 return itemStats;
             })
-            .sorted((a, b) -> ((Integer) b.get("quantity")).compareTo((Integer) a.get("quantity")))
-            .limit(10)
             .collect(Collectors.toList());
     }
 
-    private Map<PaymentMethod, Double> analyzePaymentMethods(List<Transaction> transactions) {
-        return transactions.stream()
+    private Map<PaymentMethod, Double> analyzePaymentMethods(List<HourlySalesRow> sales) {
+        return sales.stream()
             .collect(Collectors.groupingBy(
-                Transaction::getPaymentMethod,
-                Collectors.summingDouble(Transaction::getTotal)
+                HourlySalesRow::getPaymentMethod,
+                Collectors.collectingAndThen(Collectors.summingLong(HourlySalesRow::getRevenueCentavos), Centavos::toAmount)
             ));
     }
 
-    private Map<Integer, Double> analyzeHourlyRevenue(List<Transaction> transactions) {
-        return transactions.stream()
+    private Map<Integer, Double> analyzeHourlyRevenue(List<HourlySalesRow> sales) {
+        return sales.stream()
             .collect(Collectors.groupingBy(
-                t -> t.getTransactionDate().getHour(),
-                Collectors.summingDouble(Transaction::getTotal)
+                row -> row.getBucketHour().getHour(),
+                Collectors.collectingAndThen(Collectors.summingLong(HourlySalesRow::getRevenueCentavos), Centavos::toAmount)
             ));
     }
 }
@@ -0,0 +1,41 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.Transaction;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (transactionDate, id) descending. The id
+ * breaks ties between transactions stamped with the same time, so a page
+ * boundary never skips or repeats a row.
+ */
+@Value
+class TransactionCursor {
+    LocalDateTime transactionDate;
+    Long id;
+
+    static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    String encode() {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TransactionCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -1,91 +1,180 @@
 package com.hellweek.coffee.service;
 
+import com.hellweek.coffee.dto.CursorPage;
+import com.hellweek.coffee.dto.OrderTicket;
 import com.hellweek.coffee.dto.TransactionRequest;
 import com.hellweek.coffee.model.*;
 import com.hellweek.coffee.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final TransactionRepository transactionRepository;
     private final MenuItemRepository menuItemRepository;
     private final CustomerRepository customerRepository;
     private final CustomerService customerService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final SalesRollupService salesRollupService;
+    private final CustomerProfileService customerProfileService;
+    private final TicketStreamService ticketStreamService;
+    private final CustomizationSetService customizationSetService;
+    private final SalesColumnStore salesColumnStore;
+    private final TrendingItemsService trendingItemsService;
+    private final UniqueCustomerService uniqueCustomerService;
+    private final DailyReportCache dailyReportCache;
 
     @Transactional
     public Transaction createTransaction(TransactionRequest request, User cashier) {
-        // Get or create customer
-        Customer customer;
-        if (request.getMembershipId() != null) {
-            customer = customerRepository.findByMembershipId(request.getMembershipId())
-                .orElseThrow(() -> new EntityNotFoundException("Member not found"));
-        } else {
+        // Members are looked up; guests share one customer row and keep their name on the transaction
+        Customer customer = request.getMembershipId() != null
+            ? customerRepository.findByMembershipId(request.getMembershipId())
+                .orElseThrow(() -> new EntityNotFoundException("Member not found"))
+            : customerService.getSharedGuest();
+
+        // Resolve every line's menu item in one pass before pricing
+        Map<String, MenuSnapshot.Entry> menuItems = menuSnapshotService.lookupAll(itemCodes(request));
+
+        Transaction transaction = buildTransaction(request, customer, cashier, menuItems, menuItemReferences(menuItems));
+        Transaction saved = transactionRepository.save(transaction);
+        customizationSetService.register(saved.getItems());
+        ticketStreamService.publishCreated(newTicket(saved, menuItems));
+        trendingItemsService.recordOrder(request);
+        return saved;
+    }
+
+    /**
+     * Prices a request into an unsaved transaction. Touches no repository, so
+     * it may run off the request thread once the customer, menu entries and
+     * menu item references have been resolved.
+     */
+    Transaction buildTransaction(TransactionRequest request, Customer customer, User cashier,
+                                 Map<String, MenuSnapshot.Entry> menuItems, Map<Long, MenuItem> references) {
+        String guestName = null;
+        if (request.getMembershipId() == null) {
             if (request.getGuestFirstName() == null || request.getGuestFirstName().trim().isEmpty()) {
                 throw new IllegalArgumentException("Guest first name is required");
             }
-            customer = customerService.createGuestCustomer(request.getGuestFirstName());
+            guestName = request.getGuestFirstName().trim();
         }
+        checkMenuItems(itemCodes(request), menuItems);
 
         Transaction transaction = new Transaction();
         transaction.setCustomer(customer);
+        transaction.setGuestName(guestName);
         transaction.setCashier(cashier);
         transaction.setPaymentMethod(request.getPaymentMethod());
 
         // Process items
         for (TransactionRequest.TransactionItemRequest itemRequest : request.getItems()) {
-            OrderItem orderItem = createOrderItem(itemRequest, transaction);
+            MenuSnapshot.Entry menuItem = menuItems.get(itemRequest.getItemCode());
+            OrderItem orderItem = createOrderItem(itemRequest, menuItem, references.get(menuItem.getId()), transaction);
             
             // Check for duplicate items
             OrderItem existingItem = findDuplicateItem(transaction, orderItem);
             if (existingItem != null) {
                 existingItem.setQuantity(existingItem.getQuantity() + itemRequest.getQuantity());
+                transaction.recalculateTotal();
             } else {
                 transaction.addItem(orderItem);
             }
         }
+        return transaction;
+    }
 
-        return transactionRepository.save(transaction);
+    // Names come from the snapshot; the order lines only hold menu item proxies
+    private OrderTicket newTicket(Transaction transaction, Map<String, MenuSnapshot.Entry> menuItems) {
+        Map<Long, String> names = new HashMap<>();
+        for (MenuSnapshot.Entry menuItem : menuItems.values()) {
+            names.put(menuItem.getId(), menuItem.getName());
+        }
+        return OrderTicket.of(transaction, item -> names.get(item.getMenuItem().getId()));
+    }
+
+    static Set<String> itemCodes(TransactionRequest request) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (TransactionRequest.TransactionItemRequest itemRequest : request.getItems()) {
+            codes.add(itemRequest.getItemCode());
+        }
+        return codes;
     }
 
-    private OrderItem createOrderItem(TransactionRequest.TransactionItemRequest request, Transaction transaction) {
-        MenuItem menuItem = menuItemRepository.findByCode(request.getItemCode())
-            .orElseThrow(() -> new EntityNotFoundException("Menu item not found"));
+    // Loaded with their prices in one query; proxies would each be initialized when the lines are serialized
+    Map<Long, MenuItem> menuItemReferences(Map<String, MenuSnapshot.Entry> menuItems) {
+        Set<Long> ids = new HashSet<>();
+        for (MenuSnapshot.Entry menuItem : menuItems.values()) {
+            ids.add(menuItem.getId());
+        }
+        Map<Long, MenuItem> references = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (MenuItem menuItem : menuItemRepository.findAllWithPricesByIdIn(ids)) {
+                references.put(menuItem.getId(), menuItem);
+            }
+        }
+        return references;
+    }
 
-        if (!menuItem.isAvailable()) {
-            throw new IllegalStateException("Menu item is not available: " + menuItem.getName());
+    private void checkMenuItems(Set<String> codes, Map<String, MenuSnapshot.Entry> menuItems) {
+        List<String> notFound = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        for (String code : codes) {
+            MenuSnapshot.Entry menuItem = menuItems.get(code);
+            if (menuItem == null) {
+                notFound.add(code);
+            } else if (!menuItem.isAvailable()) {
+                unavailable.add(menuItem.getName());
+            }
         }
 
+        if (!notFound.isEmpty()) {
+            throw new EntityNotFoundException("Menu item not found: " + String.join(", ", notFound));
+        }
+        if (!unavailable.isEmpty()) {
+            throw new IllegalStateException("Menu item is not available: " + String.join(", ", unavailable));
+        }
+    }
+
+    OrderItem createOrderItem(TransactionRequest.TransactionItemRequest request,
+                              MenuSnapshot.Entry menuItem, MenuItem reference, Transaction transaction) {
         OrderItem orderItem = new OrderItem();
-        orderItem.setMenuItem(menuItem);
+        orderItem.setMenuItem(reference);
         orderItem.setQuantity(request.getQuantity());
         orderItem.setSize(request.getSize());
         orderItem.setNotes(request.getNotes());
 
-        // Calculate price based on size
-        double unitPrice = menuItem.getPriceForSize(request.getSize());
-
         // Add customizations
         if (request.getCustomizations() != null) {
             for (String customization : request.getCustomizations()) {
                 orderItem.addCustomization(customization);
-                unitPrice += menuItem.getCustomizationPrice(customization);
             }
         }
 
-        orderItem.setUnitPrice(unitPrice);
+        // Size price plus customizations, in whole centavos
+        orderItem.setUnitPrice(Centavos.toAmount(
+            menuItem.unitPriceCentavos(request.getSize(), request.getCustomizations())));
         orderItem.setTransaction(transaction);
         return orderItem;
     }
 
     private OrderItem findDuplicateItem(Transaction transaction, OrderItem newItem) {
         return transaction.getItems().stream()
-            .filter(item -> item.getMenuItem().equals(newItem.getMenuItem()) &&
+            .filter(item -> item.getMenuItem().getId().equals(newItem.getMenuItem().getId()) &&
                           item.hasSameCustomizations(newItem))
             .findFirst()
             .orElse(null);
@@ -93,7 +182,7 @@ public class TransactionService {
 
     @Transactional
     public Transaction completeTransaction(Long transactionId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Transaction transaction = transactionRepository.findWithLinesById(transactionId)
             .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
         
         if (transaction.isCompleted()) {
@@ -101,16 +190,73 @@ public class TransactionService {
         }
 
         transaction.setCompleted(true);
+        recordCompletions(List.of(transaction));
+        ticketStreamService.publishCompleted(OrderTicket.completed(transaction));
         return transactionRepository.save(transaction);
     }
 
+    /**
+     * Brings rollups, profiles, sales columns, customer sketches and cached
+     * reports up to date with transactions completed in the current
+     * transaction.
+     */
+    void recordCompletions(List<Transaction> transactions) {
+        salesRollupService.recordCompletions(transactions);
+        customerProfileService.recordCompletions(transactions);
+        uniqueCustomerService.recordCompletions(transactions);
+        for (Transaction transaction : transactions) {
+            salesColumnStore.recordCompletion(transaction);
+            dailyReportCache.recordCompletion(transaction);
+        }
+    }
+
     @Transactional(readOnly = true)
-    public List<Transaction> getPendingTransactions() {
-        return transactionRepository.findByStatusOrderByTransactionDateDesc("PENDING");
+    public CursorPage<Transaction> getPendingTransactions(String cursor, int size) {
+        return getTransactionsByStatus("PENDING", cursor, size);
     }
 
     @Transactional(readOnly = true)
-    public List<Transaction> getCompletedTransactions() {
-        return transactionRepository.findByStatusOrderByTransactionDateDesc("COMPLETED");
+    public CursorPage<Transaction> getCompletedTransactions(String cursor, int size) {
+        return getTransactionsByStatus("COMPLETED", cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Transaction> getCustomerHistory(Long customerId, String cursor, int size) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new EntityNotFoundException("Customer not found");
+        }
+        Pageable page = pageOf(size);
+        if (cursor == null) {
+            return toPage(transactionRepository.findFirstHistoryPage(customerId, page), size);
+        }
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        return toPage(transactionRepository.findHistoryPageAfter(
+            customerId, after.getTransactionDate(), after.getId(), page), size);
+    }
+
+    private CursorPage<Transaction> getTransactionsByStatus(String status, String cursor, int size) {
+        Pageable page = pageOf(size);
+        if (cursor == null) {
+            return toPage(transactionRepository.findFirstPageByStatus(status, page), size);
+        }
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        return toPage(transactionRepository.findPageByStatusAfter(
+            status, after.getTransactionDate(), after.getId(), page), size);
+    }
+
+    // Fetches one row past the page to learn whether another page follows
+    private Pageable pageOf(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPage<Transaction> toPage(List<Transaction> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Transaction> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, TransactionCursor.after(items.get(size - 1)).encode());
     }
 }
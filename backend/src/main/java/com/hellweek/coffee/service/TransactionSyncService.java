@@ -0,0 +1,301 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellweek.coffee.dto.SyncedTransactionRequest;
+import com.hellweek.coffee.model.Customer;
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.model.Transaction;
+import com.hellweek.coffee.model.User;
+import com.hellweek.coffee.repository.CustomerRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Ingests the orders a register took while it could not reach the backend.
+ *
+ * <p>The body is a JSON array of {@link SyncedTransactionRequest}s, read as a stream
+ * and handled {@value #CHUNK_SIZE} records at a time. Each chunk resolves its
+ * members and menu items in one lookup, prices its records in parallel and
+ * persists them in one database transaction, so the inserts go out in JDBC
+ * batches. A record that fails validation or pricing is reported by its index
+ * and skipped; the rest of the chunk is still saved.
+ *
+ * <p>The register already made and handed over these orders, so they are
+ * saved completed, dated at the time the register took them, and counted in
+ * the rollups, profiles and reports of that hour. They are not pushed to
+ * barista screens. An order time more than {@link #CLOCK_SKEW} ahead of the
+ * server clock is rejected.
+ */
+@Service
+public class TransactionSyncService {
+    static final int CHUNK_SIZE = 500;
+    static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final CustomizationSetService customizationSetService;
+    private final TrendingItemsService trendingItemsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate chunkTemplate;
+
+    public TransactionSyncService(TransactionService transactionService,
+                                  TransactionRepository transactionRepository,
+                                  CustomerRepository customerRepository,
+                                  CustomerService customerService,
+                                  MenuSnapshotService menuSnapshotService,
+                                  CustomizationSetService customizationSetService,
+                                  TrendingItemsService trendingItemsService,
+                                  ObjectMapper objectMapper,
+                                  Validator validator,
+                                  PlatformTransactionManager transactionManager) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.menuSnapshotService = menuSnapshotService;
+        this.customizationSetService = customizationSetService;
+        this.trendingItemsService = trendingItemsService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns the created transaction id for every record, in request order
+     * and {@code null} where the record failed, alongside the failures. If the
+     * body itself is malformed, the records before the fault are kept and the
+     * result says where reading stopped.
+     */
+    public Map<String, Object> sync(InputStream body, User cashier) {
+        long startTime = System.nanoTime();
+        List<Long> transactionIds = new ArrayList<>();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        List<Record> chunk = new ArrayList<>(CHUNK_SIZE);
+        String aborted = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of transactions");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                chunk.add(read(parser, transactionIds.size() + chunk.size()));
+                if (chunk.size() == CHUNK_SIZE) {
+                    process(chunk, cashier, transactionIds, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            aborted = "Stopped reading at record " + (transactionIds.size() + chunk.size()) + ": " + e.getOriginalMessage();
+        } catch (IOException e) {
+            aborted = "Stopped reading at record " + (transactionIds.size() + chunk.size()) + ": " + e.getMessage();
+        }
+        // Records read before a fault are complete, so they are kept too
+        process(chunk, cashier, transactionIds, errors);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("received", transactionIds.size());
+        result.put("created", transactionIds.size() - errors.size());
+        result.put("failed", errors.size());
+        result.put("transactionIds", transactionIds);
+        result.put("errors", errors);
+        if (aborted != null) {
+            result.put("aborted", aborted);
+        }
+        result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+        return result;
+    }
+
+    // Reads a whole element first, so a record that does not bind is reported without losing the stream
+    private Record read(JsonParser parser, int index) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Record.failed(index, "Expected a transaction object");
+        }
+        JsonNode node = parser.readValueAsTree();
+        try {
+            return Record.of(index, objectMapper.treeToValue(node, SyncedTransactionRequest.class));
+        } catch (JsonProcessingException e) {
+            return Record.failed(index, "Invalid transaction: " + e.getOriginalMessage());
+        }
+    }
+
+    private void process(List<Record> chunk, User cashier, List<Long> transactionIds,
+                         List<Map<String, Object>> errors) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, Long> created;
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            created = chunkTemplate.execute(status -> persist(chunk, cashier, failures));
+        } catch (RuntimeException e) {
+            // Something only the database could catch; find the offending records one by one
+            failures.clear();
+            created = new HashMap<>();
+            for (Record record : chunk) {
+                try {
+                    created.putAll(chunkTemplate.execute(status -> persist(List.of(record), cashier, failures)));
+                } catch (RuntimeException recordFailure) {
+                    failures.put(record.getIndex(), message(recordFailure));
+                }
+            }
+        }
+
+        for (Record record : chunk) {
+            transactionIds.add(created.get(record.getIndex()));
+            String failure = failures.get(record.getIndex());
+            if (failure != null) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("index", record.getIndex());
+                error.put("error", failure);
+                errors.add(error);
+            }
+        }
+    }
+
+    private Map<Integer, Long> persist(List<Record> records, User cashier, Map<Integer, String> failures) {
+        Set<String> membershipIds = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        LocalDateTime latest = LocalDateTime.now().plus(CLOCK_SKEW);
+        for (Record record : records) {
+            if (record.getError() == null) {
+                String error = validate(record.getRequest(), latest);
+                if (error != null) {
+                    failures.put(record.getIndex(), error);
+                    continue;
+                }
+                if (record.getRequest().getMembershipId() != null) {
+                    membershipIds.add(record.getRequest().getMembershipId());
+                }
+                codes.addAll(TransactionService.itemCodes(record.getRequest()));
+            } else {
+                failures.put(record.getIndex(), record.getError());
+            }
+        }
+
+        Map<String, Customer> members = membershipIds.isEmpty() ? Map.of()
+            : customerRepository.findByMembershipIdIn(membershipIds).stream()
+                .collect(Collectors.toMap(Customer::getMembershipId, Function.identity()));
+        Customer sharedGuest = customerService.getSharedGuest();
+        Map<String, MenuSnapshot.Entry> menuItems = menuSnapshotService.lookupAll(codes);
+        Map<Long, MenuItem> references = transactionService.menuItemReferences(menuItems);
+
+        // Pricing reads only the values resolved above, so records can be priced on any thread
+        Priced[] priced = IntStream.range(0, records.size())
+            .parallel()
+            .filter(i -> !failures.containsKey(records.get(i).getIndex()))
+            .mapToObj(i -> price(records.get(i), cashier, members, sharedGuest, menuItems, references))
+            .toArray(Priced[]::new);
+
+        List<Transaction> transactions = new ArrayList<>(priced.length);
+        List<Integer> indexes = new ArrayList<>(priced.length);
+        List<SyncedTransactionRequest> requests = new ArrayList<>(priced.length);
+        for (Priced result : priced) {
+            if (result.getError() != null) {
+                failures.put(result.getIndex(), result.getError());
+            } else {
+                transactions.add(result.getTransaction());
+                indexes.add(result.getIndex());
+                requests.add(result.getRequest());
+            }
+        }
+
+        transactionRepository.saveAll(transactions);
+        for (Transaction transaction : transactions) {
+            customizationSetService.register(transaction.getItems());
+        }
+        transactionRepository.flush();
+        // Profiles seeded from history must already see this chunk, hence after the flush
+        transactionService.recordCompletions(transactions);
+        for (SyncedTransactionRequest request : requests) {
+            trendingItemsService.recordOrder(request, request.getOrderedAt());
+        }
+
+        Map<Integer, Long> created = new HashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            created.put(indexes.get(i), transactions.get(i).getId());
+        }
+        return created;
+    }
+
+    private Priced price(Record record, User cashier, Map<String, Customer> members, Customer sharedGuest,
+                         Map<String, MenuSnapshot.Entry> menuItems, Map<Long, MenuItem> references) {
+        SyncedTransactionRequest request = record.getRequest();
+        try {
+            Customer customer = sharedGuest;
+            if (request.getMembershipId() != null) {
+                customer = members.get(request.getMembershipId());
+                if (customer == null) {
+                    throw new EntityNotFoundException("Member not found");
+                }
+            }
+            Transaction transaction = transactionService.buildTransaction(request, customer, cashier, menuItems, references);
+            transaction.setTransactionDate(request.getOrderedAt());
+            transaction.setCompleted(true);
+            return new Priced(record.getIndex(), request, transaction, null);
+        } catch (RuntimeException e) {
+            return new Priced(record.getIndex(), request, null, message(e));
+        }
+    }
+
+    private String validate(SyncedTransactionRequest request, LocalDateTime latest) {
+        Set<ConstraintViolation<SyncedTransactionRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return request.getOrderedAt().isAfter(latest) ? "Order time is in the future" : null;
+        }
+        return violations.stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private String message(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    @Value
+    static class Record {
+        int index;
+        SyncedTransactionRequest request;
+        String error;
+
+        static Record of(int index, SyncedTransactionRequest request) {
+            return new Record(index, request, null);
+        }
+
+        static Record failed(int index, String error) {
+            return new Record(index, null, error);
+        }
+    }
+
+    @Value
+    static class Priced {
+        int index;
+        SyncedTransactionRequest request;
+        Transaction transaction;
+        String error;
+    }
+}
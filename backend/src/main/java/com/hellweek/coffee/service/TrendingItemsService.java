@@ -0,0 +1,245 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hellweek.coffee.dto.TransactionRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * What is selling right now, for the menu board: the top items, and item and
+ * size combinations, by units ordered over the last few minutes.
+ *
+ * <p>Each minute of the window keeps its own pair of {@link SpaceSavingSketch}es
+ * of {@code 1 / epsilon} counters, reused once the minute leaves the window,
+ * so memory stays fixed however busy the store gets. A query merges the
+ * minutes it covers. Reported counts are upper bounds, each given with a
+ * lower bound, and every list comes with the most any count in it can be
+ * over, which is at most epsilon times the units in the window. Results are
+ * kept until the next order or the next minute, so polling costs a map lookup.
+ */
+@Service
+public class TrendingItemsService {
+    private static final char SIZE_SEPARATOR = '\u001F';
+
+    private final MenuSnapshotService menuSnapshotService;
+    private final double epsilon;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final Minute[] minutes;
+    private volatile long version;
+    private final Map<String, Trending> results = new ConcurrentHashMap<>();
+
+    public TrendingItemsService(MenuSnapshotService menuSnapshotService,
+                                @Value("${hellweek.trending.window:60m}") Duration window,
+                                @Value("${hellweek.trending.epsilon:0.005}") double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Trending epsilon must be between 0 and 1");
+        }
+        this.menuSnapshotService = menuSnapshotService;
+        this.epsilon = epsilon;
+        this.capacity = (int) Math.ceil(1 / epsilon);
+        this.minutes = new Minute[Math.toIntExact(Math.max(1, window.toMinutes()))];
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = new Minute(capacity);
+        }
+    }
+
+    /**
+     * Counts a new order's lines once its transaction commits.
+     */
+    public void recordOrder(TransactionRequest request) {
+        recordOrder(request, null);
+    }
+
+    /**
+     * Counts an order placed at {@code orderedAt} in its own minute once its
+     * transaction commits, or not at all if that minute has left the window.
+     */
+    public void recordOrder(TransactionRequest request, LocalDateTime orderedAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(request, orderedAt);
+                }
+            });
+        } else {
+            record(request, orderedAt);
+        }
+    }
+
+    private void record(TransactionRequest request, LocalDateTime orderedAt) {
+        long now = currentMinute();
+        // A register clock running ahead still counts towards the current minute
+        long at = orderedAt == null ? now
+            : Math.min(now, orderedAt.atZone(ZoneId.systemDefault()).toEpochSecond() / 60);
+        if (at <= now - minutes.length) {
+            return;
+        }
+        lock.lock();
+        try {
+            Minute minute = minutes[(int) Math.floorMod(at, (long) minutes.length)];
+            if (minute.stamp > at) {
+                return;
+            }
+            if (minute.stamp != at) {
+                minute.reset(at);
+            }
+            for (TransactionRequest.TransactionItemRequest line : request.getItems()) {
+                minute.items.add(line.getItemCode(), line.getQuantity());
+                minute.itemSizes.add(line.getSize() == null
+                    ? line.getItemCode()
+                    : line.getItemCode() + SIZE_SEPARATOR + line.getSize(), line.getQuantity());
+            }
+            minute.orders++;
+            version++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The top {@code limit} items and item-size combinations over the last
+     * {@code windowMinutes} minutes, including the current one.
+     */
+    public Trending getTrending(int windowMinutes, int limit) {
+        if (windowMinutes < 1 || windowMinutes > minutes.length) {
+            throw new IllegalArgumentException("Window must be between 1 and " + minutes.length + " minutes");
+        }
+        if (limit < 1 || limit > capacity) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + capacity);
+        }
+
+        long now = currentMinute();
+        long seen = version;
+        String key = windowMinutes + ":" + limit;
+        Trending cached = results.get(key);
+        if (cached != null && cached.getMinute() == now && cached.getVersion() == seen) {
+            return cached;
+        }
+
+        Merge items = new Merge();
+        Merge itemSizes = new Merge();
+        long orders = 0;
+        long built;
+        lock.lock();
+        try {
+            built = version;
+            for (long m = now - windowMinutes + 1; m <= now; m++) {
+                Minute minute = minutes[(int) Math.floorMod(m, (long) minutes.length)];
+                if (minute.stamp == m) {
+                    items.add(minute.items);
+                    itemSizes.add(minute.itemSizes);
+                    orders += minute.orders;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        MenuSnapshot menu = menuSnapshotService.current();
+        Trending trending = new Trending(now, built, windowMinutes, orders, items.units, epsilon,
+            items.floors, items.top(limit, menu), itemSizes.floors, itemSizes.top(limit, menu));
+        results.put(key, trending);
+        return trending;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private static class Minute {
+        long stamp = Long.MIN_VALUE;
+        long orders;
+        final SpaceSavingSketch items;
+        final SpaceSavingSketch itemSizes;
+
+        Minute(int capacity) {
+            items = new SpaceSavingSketch(capacity);
+            itemSizes = new SpaceSavingSketch(capacity);
+        }
+
+        void reset(long stamp) {
+            this.stamp = stamp;
+            orders = 0;
+            items.clear();
+            itemSizes.clear();
+        }
+    }
+
+    /**
+     * Sums per-minute summaries. A key a minute did not monitor may still
+     * have had up to that minute's floor, so its upper bound is the sum of
+     * the floors plus, for minutes that did monitor it, what it counted above
+     * the floor. Its lower bound only takes what was certainly counted.
+     */
+    private static class Merge {
+        final Map<String, long[]> bounds = new HashMap<>();
+        long floors;
+        long units;
+
+        void add(SpaceSavingSketch sketch) {
+            long floor = sketch.floor();
+            floors += floor;
+            units += sketch.total();
+            for (int slot = 0; slot < sketch.size(); slot++) {
+                long[] bound = bounds.computeIfAbsent(sketch.key(slot), key -> new long[2]);
+                bound[0] += sketch.count(slot) - floor;
+                bound[1] += sketch.count(slot) - sketch.error(slot);
+            }
+        }
+
+        List<Entry> top(int limit, MenuSnapshot menu) {
+            List<Entry> entries = new ArrayList<>(bounds.size());
+            bounds.forEach((key, bound) -> {
+                int separator = key.indexOf(SIZE_SEPARATOR);
+                String code = separator < 0 ? key : key.substring(0, separator);
+                String size = separator < 0 ? null : key.substring(separator + 1);
+                MenuSnapshot.Entry item = menu.get(code);
+                entries.add(new Entry(code, item == null ? null : item.getName(), size, bound[0] + floors, bound[1]));
+            });
+            entries.sort(Comparator.comparingLong(Entry::getCount).reversed()
+                .thenComparing(Entry::getItemCode)
+                .thenComparing(Entry::getSize, Comparator.nullsFirst(Comparator.naturalOrder())));
+            return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+        }
+    }
+
+    @lombok.Value
+    public static class Trending {
+        @JsonIgnore
+        long minute;
+        @JsonIgnore
+        long version;
+        int windowMinutes;
+        long orders;
+        long units;
+        double epsilon;
+        long itemsMaxError;
+        List<Entry> items;
+        long itemSizesMaxError;
+        List<Entry> itemSizes;
+    }
+
+    @lombok.Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+        String itemCode;
+        String name;
+        String size;
+        long count;
+        long minCount;
+    }
+}
@@ -0,0 +1,175 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.CustomerVisitRow;
+import com.hellweek.coffee.model.HourlyCustomerSketch;
+import com.hellweek.coffee.model.HourlyCustomerSketch.Kind;
+import com.hellweek.coffee.model.HyperLogLog;
+import com.hellweek.coffee.model.Transaction;
+import com.hellweek.coffee.repository.HourlyCustomerSketchRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Counts distinct customers over any range from per-hour HyperLogLog
+ * sketches, one of member customer ids and one of guest names, kept up to
+ * date as transactions complete. A range merges the sketches of the hours it
+ * covers instead of running a DISTINCT over its transactions.
+ */
+@Service
+@RequiredArgsConstructor
+public class UniqueCustomerService {
+    private final HourlyCustomerSketchRepository sketchRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final StripedLocks stripes = new StripedLocks();
+
+    /**
+     * Adds a completed transaction's customer to its hour's sketch. The row is
+     * read, merged and written back, so completions sharing an hour and kind
+     * are serialized until commit to keep a concurrent insert from colliding.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletion(Transaction transaction) {
+        recordCompletions(List.of(transaction));
+    }
+
+    /**
+     * Adds a batch of completed transactions' customers, each sketch read and
+     * written once. Their stripes are taken in index order, so a batch never
+     * waits on a completion that is waiting on it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletions(Collection<Transaction> transactions) {
+        Map<SketchKey, List<Transaction>> byKey = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            boolean member = transaction.getCustomer().isMember();
+            if (member || transaction.getCustomerName() != null) {
+                SketchKey key = new SketchKey(SalesRollupService.bucketOf(transaction.getTransactionDate()),
+                    member ? Kind.MEMBER : Kind.GUEST);
+                byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(transaction);
+            }
+        }
+        stripes.lockUntilCompletion(byKey.keySet());
+
+        for (SketchKey key : byKey.keySet()) {
+            HourlyCustomerSketch row = sketchRepository.findForUpdate(key.getBucketHour(), key.getKind())
+                .orElseGet(() -> newSketch(key, null));
+            HyperLogLog sketch = HyperLogLog.fromBytes(row.getRegisters());
+            boolean changed = false;
+            for (Transaction transaction : byKey.get(key)) {
+                changed |= key.getKind() == Kind.MEMBER
+                    ? sketch.add(transaction.getCustomer().getId())
+                    : sketch.add(transaction.getCustomerName());
+            }
+            // A customer already counted this hour usually leaves every register as it was
+            if (changed || row.getId() == null) {
+                row.setRegisters(sketch.toBytes());
+                sketchRepository.save(row);
+            }
+        }
+    }
+
+    /**
+     * Estimated distinct members and guests with completed transactions in
+     * [start, end), widened to whole hours.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> estimate(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End must be after start");
+        }
+        LocalDateTime from = SalesRollupService.bucketOf(start);
+        LocalDateTime to = SalesRollupService.bucketCeiling(end);
+
+        HyperLogLog members = new HyperLogLog();
+        HyperLogLog guests = new HyperLogLog();
+        List<HourlyCustomerSketch> rows = sketchRepository.findInRange(from, to);
+        for (HourlyCustomerSketch row : rows) {
+            (row.getKind() == Kind.MEMBER ? members : guests).merge(HyperLogLog.fromBytes(row.getRegisters()));
+        }
+
+        long memberCount = members.estimate();
+        long guestCount = guests.estimate();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("start", from);
+        result.put("end", to);
+        result.put("members", memberCount);
+        result.put("guests", guestCount);
+        result.put("total", memberCount + guestCount);
+        result.put("relativeStandardError", HyperLogLog.RELATIVE_ERROR);
+        result.put("sketches", rows.size());
+        return result;
+    }
+
+    /**
+     * Regenerates the sketches of every hour in [start, end) from the raw
+     * completed transactions, replacing whatever was stored.
+     */
+    @Transactional
+    public Map<String, Object> rebuild(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = SalesRollupService.bucketOf(start);
+        LocalDateTime to = SalesRollupService.bucketCeiling(end);
+        stripes.lockAllUntilCompletion();
+
+        long startTime = System.nanoTime();
+        sketchRepository.deleteInRange(from, to);
+
+        // Visits arrive in date order, so each hour's sketches are saved as soon as the next hour starts
+        Map<Kind, HyperLogLog> hour = new EnumMap<>(Kind.class);
+        LocalDateTime[] bucket = {null};
+        long[] counts = new long[2];
+        try (Stream<CustomerVisitRow> visits = transactionRepository.streamCustomerVisitsInRange(from, to)) {
+            visits.forEach(visit -> {
+                LocalDateTime visitBucket = SalesRollupService.bucketOf(visit.getTransactionDate());
+                if (!visitBucket.equals(bucket[0])) {
+                    counts[0] += save(bucket[0], hour);
+                    bucket[0] = visitBucket;
+                }
+                if (visit.isMember()) {
+                    hour.computeIfAbsent(Kind.MEMBER, kind -> new HyperLogLog()).add(visit.getCustomerId());
+                } else if (visit.getCustomerName() != null) {
+                    hour.computeIfAbsent(Kind.GUEST, kind -> new HyperLogLog()).add(visit.getCustomerName());
+                }
+                counts[1]++;
+            });
+        }
+        counts[0] += save(bucket[0], hour);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("start", from);
+        result.put("end", to);
+        result.put("transactions", counts[1]);
+        result.put("sketches", counts[0]);
+        result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+        return result;
+    }
+
+    private int save(LocalDateTime bucket, Map<Kind, HyperLogLog> hour) {
+        int saved = hour.size();
+        hour.forEach((kind, sketch) -> sketchRepository.save(newSketch(new SketchKey(bucket, kind), sketch)));
+        hour.clear();
+        return saved;
+    }
+
+    private HourlyCustomerSketch newSketch(SketchKey key, HyperLogLog sketch) {
+        HourlyCustomerSketch row = new HourlyCustomerSketch();
+        row.setBucketHour(key.getBucketHour());
+        row.setKind(key.getKind());
+        row.setRegisters(sketch == null ? null : sketch.toBytes());
+        return row;
+    }
+
+    @Value
+    static class SketchKey {
+        LocalDateTime bucketHour;
+        Kind kind;
+    }
+}
@@ -11,10 +11,13 @@ import java.util.List;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SessionTokenService sessionTokenService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       SessionTokenService sessionTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.sessionTokenService = sessionTokenService;
         createDefaultAdminIfNotExists();
     }
 
@@ -63,12 +66,15 @@ public class UserService {
         user.setLastName(request.getLastName());
         user.setRole(request.getRole());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        sessionTokenService.refreshUser(saved);
+        return saved;
     }
 
     public void deleteUser(Long id) {
         User user = getUserById(id);
         user.setActive(false);
         userRepository.save(user);
+        sessionTokenService.revokeUser(id);
     }
 }
@@ -0,0 +1,153 @@
+package com.hellweek.coffee.config;
+
+import com.hellweek.coffee.model.User;
+import com.hellweek.coffee.repository.UserRepository;
+import com.hellweek.coffee.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:security-config-test")
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+    private static final String NEW_USER =
+        "{\"username\":\"cashier2\",\"password\":\"secret\",\"firstName\":\"Ana\",\"role\":\"CASHIER\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Test
+    void loginAndLogoutAreOpen() throws Exception {
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer unknown"))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/auth/logout"))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void logoutOnlyEndsBearerSessions() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        String token = sessionTokenService.issue(admin, sessionTokenService.generation()).getToken();
+
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, "Basic " + token))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, token))
+            .andExpect(status().isNoContent());
+        assertThat(sessionTokenService.authenticate(token)).isNotNull();
+
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isNoContent());
+        assertThat(sessionTokenService.authenticate(token)).isNull();
+    }
+
+    @Test
+    void userManagementNeedsAnAdmin() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User cashier = staff("cashier1", User.Role.CASHIER);
+
+        mockMvc.perform(post("/api/auth/users").contentType(MediaType.APPLICATION_JSON).content(NEW_USER))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(put("/api/auth/users/" + admin.getId()).contentType(MediaType.APPLICATION_JSON).content(NEW_USER))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/auth/users/" + admin.getId()))
+            .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/api/auth/users").header(HttpHeaders.AUTHORIZATION, bearer(cashier))
+                .contentType(MediaType.APPLICATION_JSON).content(NEW_USER))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/auth/users/" + admin.getId()).header(HttpHeaders.AUTHORIZATION, bearer(cashier)))
+            .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/auth/users").header(HttpHeaders.AUTHORIZATION, bearer(admin))
+                .contentType(MediaType.APPLICATION_JSON).content(NEW_USER))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void rollupRebuildNeedsAnAdmin() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User manager = staff("manager1", User.Role.MANAGER);
+        String rebuild = "/api/analytics/rollups/rebuild?start=2024-03-01T00:00:00&end=2024-03-02T00:00:00";
+
+        mockMvc.perform(post(rebuild).header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post(rebuild).header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void sketchRebuildNeedsAnAdmin() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User manager = staff("manager1", User.Role.MANAGER);
+        String rebuild = "/api/analytics/customers/unique/rebuild?start=2024-03-01T00:00:00&end=2024-03-02T00:00:00";
+
+        mockMvc.perform(post(rebuild).header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post(rebuild).header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void reportCacheInvalidationNeedsAnAdmin() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User manager = staff("manager1", User.Role.MANAGER);
+        String invalidate = "/api/analytics/daily/cache/invalidate?start=2024-03-01T00:00:00&end=2024-03-02T00:00:00";
+
+        mockMvc.perform(post(invalidate).header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post(invalidate).header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void guestCompactionNeedsAnAdmin() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        User manager = staff("manager1", User.Role.MANAGER);
+
+        mockMvc.perform(post("/api/customers/guests/compact").header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/customers/guests/compact").header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void menuSnapshotRefreshNeedsAManager() throws Exception {
+        User manager = staff("manager1", User.Role.MANAGER);
+        User cashier = staff("cashier1", User.Role.CASHIER);
+
+        mockMvc.perform(post("/api/menu/snapshot/refresh").header(HttpHeaders.AUTHORIZATION, bearer(cashier)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/menu/snapshot/refresh").header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+            .andExpect(status().isOk());
+    }
+
+    private User staff(String username, User.Role role) {
+        return userRepository.findByUsername(username).orElseGet(() -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("unused");
+            user.setFirstName(username);
+            user.setRole(role);
+            return userRepository.save(user);
+        });
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + sessionTokenService.issue(user, sessionTokenService.generation()).getToken();
+    }
+}
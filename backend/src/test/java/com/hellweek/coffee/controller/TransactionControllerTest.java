@@ -0,0 +1,115 @@
+package com.hellweek.coffee.controller;
+
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.model.User;
+import com.hellweek.coffee.repository.MenuItemRepository;
+import com.hellweek.coffee.repository.UserRepository;
+import com.hellweek.coffee.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:transaction-controller-test",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class TransactionControllerTest {
+    private static final int MENU_SIZE = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SessionTokenService sessionTokenService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        if (menuItemRepository.count() == 0) {
+            for (int i = 0; i < MENU_SIZE; i++) {
+                MenuItem menuItem = new MenuItem();
+                menuItem.setCode("ITEM" + i);
+                menuItem.setName("Item " + i);
+                menuItem.setCategory("COFFEE");
+                menuItem.setBasePrice(100 + i);
+                menuItem.getSizePriceAdjustments().put("LARGE", 20.0);
+                menuItem.getCustomizationPriceAdjustments().put("EXTRA_SHOT", 30.0);
+                menuItemRepository.save(menuItem);
+            }
+        }
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        bearer = "Bearer " + sessionTokenService.issue(admin, sessionTokenService.generation()).getToken();
+    }
+
+    @Test
+    void ordersRunTheSameStatementsHoweverManyItemsTheyHave() throws Exception {
+        // Warm up the menu snapshot, customization sets and the first sequence blocks
+        statementsFor(MENU_SIZE);
+        statementsFor(1);
+
+        long one = statementsFor(1);
+        long twelve = statementsFor(MENU_SIZE);
+
+        assertThat(twelve).isEqualTo(one);
+    }
+
+    @Test
+    void idempotencyKeyMisuseIsAClientError() throws Exception {
+        String order = "{\"guestFirstName\":\"Ana\",\"paymentMethod\":\"CASH\",\"items\":" +
+            "[{\"itemCode\":\"ITEM0\",\"quantity\":1,\"size\":\"LARGE\",\"customizations\":[]}]}";
+
+        mockMvc.perform(post("/api/transactions").header(HttpHeaders.AUTHORIZATION, bearer)
+                .header("Idempotency-Key", "k".repeat(101))
+                .contentType(MediaType.APPLICATION_JSON).content(order))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/transactions").header(HttpHeaders.AUTHORIZATION, bearer)
+                .header("Idempotency-Key", "reused-key")
+                .contentType(MediaType.APPLICATION_JSON).content(order))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/transactions").header(HttpHeaders.AUTHORIZATION, bearer)
+                .header("Idempotency-Key", "reused-key")
+                .contentType(MediaType.APPLICATION_JSON).content(order.replace("\"quantity\":1", "\"quantity\":2")))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    private long statementsFor(int items) throws Exception {
+        StringJoiner lines = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < items; i++) {
+            lines.add("{\"itemCode\":\"ITEM" + i + "\",\"quantity\":1,\"size\":\"LARGE\",\"customizations\":[\"EXTRA_SHOT\"]}");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/transactions").header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"guestFirstName\":\"Ana\",\"paymentMethod\":\"CASH\",\"items\":" + lines + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(items))
+            .andExpect(jsonPath("$.items[0].menuItem.sizePriceAdjustments.LARGE").value(20.0));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hellweek.coffee.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void sparseSketchSurvivesARoundTrip() {
+        HyperLogLog sketch = sketchOf(0, 100);
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertThat(bytes[0]).isZero();
+        assertThat(bytes.length).isLessThan(HyperLogLog.MAX_BYTES);
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void denseSketchSurvivesARoundTrip() {
+        HyperLogLog sketch = sketchOf(0, 100_000);
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertThat(bytes[0]).isEqualTo((byte) 1);
+        assertThat(bytes).hasSize(HyperLogLog.MAX_BYTES);
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void missingBytesAreAnEmptySketch() {
+        assertThat(HyperLogLog.fromBytes(null).estimate()).isZero();
+        assertThat(HyperLogLog.fromBytes(new byte[0]).estimate()).isZero();
+        assertThat(new HyperLogLog().toBytes()).containsExactly(0);
+    }
+
+    @Test
+    void mergeIsCommutativeAndMatchesCountingEverything() {
+        // Overlapping halves, one sparse and one dense
+        HyperLogLog left = sketchOf(0, 1_000);
+        HyperLogLog right = sketchOf(500, 60_000);
+
+        HyperLogLog leftThenRight = HyperLogLog.fromBytes(left.toBytes());
+        leftThenRight.merge(right);
+        HyperLogLog rightThenLeft = HyperLogLog.fromBytes(right.toBytes());
+        rightThenLeft.merge(left);
+
+        assertThat(leftThenRight.toBytes()).isEqualTo(rightThenLeft.toBytes())
+            .isEqualTo(sketchOf(0, 60_000).toBytes());
+        assertThat((double) leftThenRight.estimate())
+            .isCloseTo(60_000, within(60_000 * 3 * HyperLogLog.RELATIVE_ERROR));
+    }
+
+    @Test
+    void namesAreCountedIgnoringCaseAndSurroundingSpace() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        assertThat(sketch.add("Ana")).isTrue();
+        assertThat(sketch.add("  ana ")).isFalse();
+        assertThat(sketch.estimate()).isEqualTo(1);
+    }
+
+    private static HyperLogLog sketchOf(long from, long to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long value = from; value < to; value++) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+}
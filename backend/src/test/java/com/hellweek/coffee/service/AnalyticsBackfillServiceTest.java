@@ -0,0 +1,119 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "hellweek.reports.cache-dir=target/analytics-backfill-test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({AnalyticsBackfillService.class, DailyReportCache.class, TransactionAnalyticsService.class,
+    SalesRollupService.class, UniqueCustomerService.class, MenuSnapshotService.class})
+class AnalyticsBackfillServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private AnalyticsBackfillService backfillService;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private DailyReportCache dailyReportCache;
+
+    @Autowired
+    private UniqueCustomerService uniqueCustomerService;
+
+    @Test
+    void rollsUpTransactionsCompletedBeforeRollupsWereKept() {
+        List<Transaction> transactions = completeOrders();
+        LocalDate firstDay = START.toLocalDate();
+        assertThat(body(firstDay)).contains("\"totalTransactions\":0");
+
+        for (Transaction transaction : transactions.subList(200, 216)) {
+            salesRollupService.recordCompletion(transaction);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(backfillService.backfillRollups()).isEqualTo(201);
+        assertThat(salesRollupService.verify(START, START.plusDays(3)).get("consistent")).isEqualTo(true);
+        assertThat(body(firstDay)).contains("\"totalTransactions\":72");
+
+        assertThat(backfillService.backfillRollups()).isZero();
+    }
+
+    @Test
+    void sketchesTransactionsCompletedBeforeSketchesWereKept() {
+        List<Transaction> transactions = completeOrders();
+        LocalDate firstDay = START.toLocalDate();
+        assertThat(body(firstDay)).contains("\"guests\":0");
+
+        for (Transaction transaction : transactions.subList(200, 216)) {
+            uniqueCustomerService.recordCompletion(transaction);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(backfillService.backfillSketches()).isEqualTo(201);
+        assertThat(uniqueCustomerService.estimate(START, START.plusDays(3)).get("guests")).isEqualTo(12L);
+        assertThat(body(firstDay)).contains("\"guests\":12");
+
+        assertThat(backfillService.backfillSketches()).isZero();
+    }
+
+    /**
+     * Three days of orders from 12 guests, 20 minutes apart, with nothing
+     * rolled up; the tests switch their series on at the 201st, partway
+     * through an hour.
+     */
+    private List<Transaction> completeOrders() {
+        // Reports spilled by an earlier run were indexed at startup
+        dailyReportCache.invalidate(null, null);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Guest");
+        entityManager.persist(customer);
+        MenuItem menuItem = new MenuItem();
+        menuItem.setCode("LAT");
+        menuItem.setName("Latte");
+        menuItem.setCategory("COFFEE");
+        menuItem.setBasePrice(120.0);
+        entityManager.persist(menuItem);
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 216; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCustomer(customer);
+            transaction.setGuestName("Guest " + i % 12);
+            transaction.setPaymentMethod(PaymentMethod.CASH);
+            transaction.setTransactionDate(START.plusMinutes(i * 20L));
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            item.setQuantity(1);
+            item.setUnitPrice(120.0);
+            item.setSize("MEDIUM");
+            transaction.addItem(item);
+            transaction.setCompleted(true);
+            transactions.add(entityManager.persist(transaction));
+        }
+        entityManager.flush();
+        return transactions;
+    }
+
+    private String body(LocalDate day) {
+        return new String(dailyReportCache.get(day).getBody(), StandardCharsets.UTF_8);
+    }
+}
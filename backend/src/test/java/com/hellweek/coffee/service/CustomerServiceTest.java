@@ -0,0 +1,64 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.Customer;
+import com.hellweek.coffee.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each caller inserts in its own transaction, so the race must run on committed data
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CustomerService.class)
+class CustomerServiceTest {
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void concurrentFirstRequestsShareOneGuestRow() throws Exception {
+        // Created at startup; removed so every caller finds none
+        customerRepository.deleteAll(sharedGuests());
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> ids = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                ids.add(pool.submit(() -> {
+                    start.await();
+                    return customerService.ensureSharedGuest();
+                }));
+            }
+            start.countDown();
+            Long first = ids.get(0).get();
+            for (Future<Long> id : ids) {
+                assertThat(id.get()).isEqualTo(first);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(sharedGuests()).hasSize(1);
+        assertThat(customerService.getSharedGuest().getId()).isEqualTo(ids.get(0).get());
+    }
+
+    private List<Customer> sharedGuests() {
+        return customerRepository.findAll().stream().filter(Customer::isSharedGuest).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.ItemView;
+import com.hellweek.coffee.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ItemService.class, ItemListingService.class, MenuSnapshotService.class})
+class ItemServiceTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ItemService itemService;
+
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Customization> customizations = new ArrayList<>();
+
+    @Test
+    void listingsRunTheSameStatementsHoweverManyItemsThereAre() {
+        for (ItemType type : new ItemType[] {ItemType.DRINK, ItemType.FOOD, ItemType.MERCHANDISE}) {
+            categories.add(category(type));
+        }
+        for (int i = 0; i < 6; i++) {
+            customizations.add(customization(i));
+        }
+
+        seedItems(0, 10);
+        long allFew = statementsFor(() -> itemService.getAllItems(null, null), 10);
+        long drinksFew = statementsFor(() -> itemService.getItemsByType(ItemType.DRINK), 4);
+
+        seedItems(10, 1_000);
+        long allMany = statementsFor(() -> itemService.getAllItems(null, null), 1_000);
+        long drinksMany = statementsFor(() -> itemService.getItemsByType(ItemType.DRINK), 334);
+
+        assertThat(allMany).isEqualTo(allFew);
+        assertThat(drinksMany).isEqualTo(drinksFew);
+    }
+
+    private long statementsFor(Supplier<List<ItemView>> listing, int expectedItems) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemView> items = listing.get();
+
+        assertThat(items).hasSize(expectedItems);
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.getSizePrices()).hasSize(2);
+            assertThat(item.getAvailableCustomizations()).hasSize(2)
+                .allSatisfy(customization -> assertThat(customization.getOptions()).hasSize(3));
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedItems(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Item item = new Item();
+            item.setName(String.format("Item %04d", i));
+            item.setBasePrice(100.0 + i);
+            item.setCategory(entityManager.find(Category.class, categories.get(i % categories.size()).getId()));
+            item.setType(item.getCategory().getItemType());
+            item.getSizePrices().put("MEDIUM", 100.0 + i);
+            item.getSizePrices().put("LARGE", 120.0 + i);
+            item.getAvailableCustomizations().add(entityManager.find(Customization.class,
+                customizations.get(i % customizations.size()).getId()));
+            item.getAvailableCustomizations().add(entityManager.find(Customization.class,
+                customizations.get((i + 1) % customizations.size()).getId()));
+            entityManager.persist(item);
+        }
+    }
+
+    private Category category(ItemType type) {
+        Category category = new Category();
+        category.setId(type.name());
+        category.setName(type.name());
+        category.setItemType(type);
+        return entityManager.persist(category);
+    }
+
+    private Customization customization(int index) {
+        Customization customization = new Customization();
+        customization.setName("Customization " + index);
+        customization.setApplicableType(Customization.ItemType.DRINK);
+        customization.setOptions(new ArrayList<>());
+        for (int o = 0; o < 3; o++) {
+            CustomizationOption option = new CustomizationOption();
+            option.setName("Option " + o);
+            option.setPrice(5.0 * o);
+            option.setCustomization(customization);
+            customization.getOptions().add(option);
+        }
+        return entityManager.persist(customization);
+    }
+}
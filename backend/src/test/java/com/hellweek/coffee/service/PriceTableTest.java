@@ -0,0 +1,36 @@
+package com.hellweek.coffee.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceTableTest {
+
+    @Test
+    void findsEveryPriceItWasBuiltWith() {
+        Map<String, Long> prices = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            prices.put("OPTION_" + i, 5L * i + 1);
+        }
+        // Same hash code, so they probe past each other
+        prices.put("Aa", 1_005L);
+        prices.put("BB", 2_035L);
+
+        PriceTable table = PriceTable.of(prices);
+
+        prices.forEach((name, price) -> assertThat(table.get(name, -1)).as(name).isEqualTo(price));
+        assertThat(table.get(new String("OPTION_7"), -1)).isEqualTo(36);
+    }
+
+    @Test
+    void unknownOrMissingNamesFallBack() {
+        PriceTable table = PriceTable.of(Map.of("LARGE", 14_550L));
+
+        assertThat(table.get("VENTI", 12_000)).isEqualTo(12_000);
+        assertThat(table.get(null, 12_000)).isEqualTo(12_000);
+        assertThat(PriceTable.of(Map.of()).get("LARGE", 0)).isZero();
+    }
+}
@@ -0,0 +1,105 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.TransactionAnalytics;
+import com.hellweek.coffee.dto.TransactionAnalytics.ItemSalesData;
+import com.hellweek.coffee.model.*;
+import com.hellweek.coffee.repository.CustomerRepository;
+import com.hellweek.coffee.repository.MenuItemRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Days are folded on the partition pool in their own transactions, so the orders must be committed
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RangeReportService.class, MenuSnapshotService.class, CustomizationSetService.class})
+class RangeReportServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE"};
+
+    @Autowired
+    private RangeReportService rangeReportService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void daysFoldedConcurrentlyMergeToTheSumOfEachDay() {
+        Customer customer = new Customer();
+        customer.setFirstName("Guest");
+        customerRepository.save(customer);
+        MenuItem[] menuItems = {menuItem("LAT", 120), menuItem("AME", 95.45), menuItem("MOC", 140.15)};
+
+        for (int i = 0; i < 200; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCustomer(customer);
+            transaction.setPaymentMethod(PaymentMethod.CASH);
+            transaction.setTransactionDate(START.plusMinutes(i * 31L));
+            for (int line = 0; line <= i % 3; line++) {
+                MenuItem menuItem = menuItems[(i + line) % menuItems.length];
+                OrderItem item = new OrderItem();
+                item.setMenuItem(menuItem);
+                item.setQuantity(1 + (i + line) % 4);
+                item.setUnitPrice(menuItem.getBasePrice() + 10.10 * (line % 2));
+                item.setSize(SIZES[(i + line) % SIZES.length]);
+                transaction.addItem(item);
+            }
+            transaction.setCompleted(true);
+            transactionRepository.save(transaction);
+        }
+
+        TransactionAnalytics range = rangeReportService.generateReport(START, START.plusDays(5));
+
+        Map<String, ItemSalesData> expected = new HashMap<>();
+        long revenue = 0;
+        int transactions = 0;
+        for (int day = 0; day < 5; day++) {
+            TransactionAnalytics single = rangeReportService.generateReport(START.plusDays(day), START.plusDays(day + 1));
+            revenue += Centavos.of(single.getTotalRevenue());
+            transactions += single.getTotalTransactions();
+            for (ItemSalesData item : single.getTopSellingItems()) {
+                ItemSalesData sum = expected.computeIfAbsent(item.getItemCode(), code -> {
+                    ItemSalesData created = new ItemSalesData();
+                    created.setSizeDistribution(new HashMap<>());
+                    return created;
+                });
+                sum.setQuantity(sum.getQuantity() + item.getQuantity());
+                sum.setRevenue(Centavos.toAmount(Centavos.of(sum.getRevenue()) + Centavos.of(item.getRevenue())));
+                item.getSizeDistribution().forEach((size, quantity) ->
+                    sum.getSizeDistribution().merge(size, quantity, Integer::sum));
+            }
+        }
+
+        assertThat(range.getTotalTransactions()).isEqualTo(200).isEqualTo(transactions);
+        assertThat(Centavos.of(range.getTotalRevenue())).isEqualTo(revenue);
+        assertThat(range.getTopSellingItems()).hasSize(3);
+        for (ItemSalesData item : range.getTopSellingItems()) {
+            ItemSalesData sum = expected.get(item.getItemCode());
+            assertThat(item.getQuantity()).isEqualTo(sum.getQuantity());
+            assertThat(item.getRevenue()).isEqualTo(sum.getRevenue());
+            assertThat(item.getSizeDistribution()).isEqualTo(sum.getSizeDistribution());
+        }
+    }
+
+    private MenuItem menuItem(String code, double price) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setCode(code);
+        menuItem.setName(code);
+        menuItem.setCategory("COFFEE");
+        menuItem.setBasePrice(price);
+        return menuItemRepository.save(menuItem);
+    }
+}
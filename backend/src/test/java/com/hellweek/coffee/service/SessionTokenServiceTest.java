@@ -0,0 +1,54 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionTokenServiceTest {
+    private final SessionTokenService sessionTokenService = new SessionTokenService(Duration.ofHours(1));
+
+    @Test
+    void loginThatReadTheUserBeforeARevocationGetsNoSession() {
+        User user = user(7L);
+        SessionTokenService.Session open = sessionTokenService.issue(user, sessionTokenService.generation());
+
+        long seen = sessionTokenService.generation();
+        // Deactivated after the login read the user, before it issued the session
+        sessionTokenService.revokeUser(user.getId());
+
+        assertThatThrownBy(() -> sessionTokenService.issue(user, seen)).isInstanceOf(IllegalStateException.class);
+        assertThat(sessionTokenService.authenticate(open.getToken())).isNull();
+    }
+
+    @Test
+    void revocationsOfOtherUsersOrFromBeforeDoNotBlockALogin() {
+        sessionTokenService.revokeUser(7L);
+        long seen = sessionTokenService.generation();
+        sessionTokenService.revokeUser(8L);
+
+        SessionTokenService.Session session = sessionTokenService.issue(user(7L), seen);
+
+        assertThat(sessionTokenService.authenticate(session.getToken()).getPrincipal()).isInstanceOf(User.class);
+    }
+
+    @Test
+    void tokensAreOpaqueAndDistinct() {
+        User user = user(7L);
+        String first = sessionTokenService.issue(user, sessionTokenService.generation()).getToken();
+        String second = sessionTokenService.issue(user, sessionTokenService.generation()).getToken();
+
+        assertThat(first).matches("[A-Za-z0-9_-]{43}").isNotEqualTo(second);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("cashier" + id);
+        user.setRole(User.Role.CASHIER);
+        return user;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hellweek.coffee.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void countsExactlyUntilFull() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        sketch.add("LAT", 3);
+        sketch.add("AME", 1);
+        sketch.add("LAT", 2);
+
+        assertThat(sketch.size()).isEqualTo(2);
+        assertThat(sketch.floor()).isZero();
+        assertThat(sketch.total()).isEqualTo(6);
+        for (int slot = 0; slot < sketch.size(); slot++) {
+            assertThat(sketch.error(slot)).isZero();
+            assertThat(sketch.count(slot)).isEqualTo(sketch.key(slot).equals("LAT") ? 5 : 1);
+        }
+    }
+
+    @Test
+    void boundsHoldOnASkewedStream() {
+        int capacity = 50;
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        Map<String, Long> truth = new HashMap<>();
+        // Roughly Zipfian over 500 keys, so a few heavy hitters stand out of a long tail
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String key = "ITEM" + (int) Math.floor(Math.pow(500, random.nextDouble()));
+            long weight = 1 + random.nextInt(3);
+            sketch.add(key, weight);
+            truth.merge(key, weight, Long::sum);
+        }
+
+        long total = truth.values().stream().mapToLong(Long::longValue).sum();
+        long bound = total / capacity;
+        assertThat(sketch.total()).isEqualTo(total);
+        assertThat(sketch.size()).isEqualTo(capacity);
+        assertThat(sketch.floor()).isLessThanOrEqualTo(bound);
+
+        Set<String> monitored = new HashSet<>();
+        for (int slot = 0; slot < sketch.size(); slot++) {
+            String key = sketch.key(slot);
+            long actual = truth.get(key);
+            monitored.add(key);
+            assertThat(sketch.count(slot)).as(key).isGreaterThanOrEqualTo(actual);
+            assertThat(sketch.count(slot) - sketch.error(slot)).as(key).isLessThanOrEqualTo(actual);
+            assertThat(sketch.count(slot) - actual).as(key).isLessThanOrEqualTo(bound);
+        }
+        truth.forEach((key, actual) -> {
+            if (!monitored.contains(key)) {
+                assertThat(actual).as(key).isLessThanOrEqualTo(sketch.floor());
+            }
+            if (actual > bound) {
+                assertThat(monitored).as("heavy hitter " + key).contains(key);
+            }
+        });
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add("LAT", 4);
+        sketch.add("AME", 2);
+        sketch.add("MOC", 1);
+        sketch.clear();
+        sketch.add("ESP", 1);
+
+        assertThat(sketch.size()).isEqualTo(1);
+        assertThat(sketch.total()).isEqualTo(1);
+        assertThat(sketch.floor()).isZero();
+        assertThat(sketch.count(0)).isEqualTo(1);
+        assertThat(sketch.error(0)).isZero();
+    }
+}
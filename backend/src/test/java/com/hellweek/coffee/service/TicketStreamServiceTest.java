@@ -0,0 +1,37 @@
+package com.hellweek.coffee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketStreamServiceTest {
+    private final TicketStreamService beforeRestart = new TicketStreamService(null, null, new ObjectMapper());
+    private final TicketStreamService afterRestart = new TicketStreamService(null, null, new ObjectMapper());
+
+    @AfterEach
+    void tearDown() {
+        beforeRestart.shutdown();
+        afterRestart.shutdown();
+    }
+
+    @Test
+    void eventIdsOnlyResumeWithinTheBootThatSentThem() {
+        String sent = beforeRestart.eventIdOf(42);
+
+        assertThat(beforeRestart.numberOf(sent)).isEqualTo(42);
+        // Numbers start over after a restart, so 42 may name a different event there
+        assertThat(afterRestart.numberOf(sent)).isNull();
+    }
+
+    @Test
+    void idsWithoutThisBootsPrefixAreNotResumed() {
+        String prefix = afterRestart.eventIdOf(0).replaceAll("0$", "");
+
+        assertThat(afterRestart.numberOf(null)).isNull();
+        assertThat(afterRestart.numberOf("42")).isNull();
+        assertThat(afterRestart.numberOf(prefix + "x")).isNull();
+        assertThat(afterRestart.numberOf(prefix + "7")).isEqualTo(7);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TransactionAnalyticsService.class, SalesRollupService.class, UniqueCustomerService.class,
+    MenuSnapshotService.class})
+class TransactionAnalyticsServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final PaymentMethod[] PAYMENT_METHODS = {PaymentMethod.CASH, PaymentMethod.GCASH, PaymentMethod.MAYA};
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private TransactionAnalyticsService analyticsService;
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Test
+    void rollupReportMatchesReportAggregatedFromTransactions() {
+        Customer customer = new Customer();
+        customer.setFirstName("Guest");
+        entityManager.persist(customer);
+        MenuItem[] menuItems = {menuItem("LAT", 120), menuItem("AME", 95.45), menuItem("MOC", 140.15)};
+
+        // Prices are not exact in binary; both paths add whole centavos, so they still agree exactly
+        for (int i = 0; i < 300; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCustomer(customer);
+            transaction.setPaymentMethod(PAYMENT_METHODS[i % PAYMENT_METHODS.length]);
+            transaction.setTransactionDate(START.plusMinutes(i * 17L));
+            for (int line = 0; line <= i % 3; line++) {
+                MenuItem menuItem = menuItems[(i + line) % menuItems.length];
+                OrderItem item = new OrderItem();
+                item.setMenuItem(menuItem);
+                item.setQuantity(1 + (i + line) % 4);
+                item.setUnitPrice(menuItem.getBasePrice() + 10.10 * (line % 2));
+                item.setSize("MEDIUM");
+                transaction.addItem(item);
+            }
+            // Left pending, so neither path may count it
+            if (i % 10 != 9) {
+                transaction.setCompleted(true);
+            }
+            entityManager.persist(transaction);
+            if (transaction.isCompleted()) {
+                salesRollupService.recordCompletion(transaction);
+            }
+        }
+        entityManager.flush();
+        // The rollups were incremented in SQL behind the persistence context
+        entityManager.clear();
+
+        LocalDateTime start = START.plusHours(5);
+        LocalDateTime end = START.plusDays(2);
+        Map<String, Object> fromRollups = analyticsService.generateSalesReport(start, end);
+        Map<String, Object> fromTransactions = analyticsService.generateSalesReportFromTransactions(start, end);
+
+        assertThat(fromRollups.get("totalTransactions")).isEqualTo(136);
+        assertThat(fromRollups).isEqualTo(fromTransactions);
+    }
+
+    private MenuItem menuItem(String code, double price) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setCode(code);
+        menuItem.setName(code);
+        menuItem.setCategory("COFFEE");
+        menuItem.setBasePrice(price);
+        return entityManager.persist(menuItem);
+    }
+}
@@ -0,0 +1,144 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.TransactionRequest;
+import com.hellweek.coffee.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionServiceTest {
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE", null};
+    private static final String[] CUSTOMIZATIONS = {"EXTRA_SHOT", "OAT_MILK", "VANILLA_SYRUP", "WHIPPED_CREAM"};
+
+    // Pricing touches none of the collaborators
+    private final TransactionService transactionService =
+        new TransactionService(null, null, null, null, null, null, null, null, null, null, null, null, null);
+
+    private final Map<String, MenuItem> menuItems = new HashMap<>();
+    private final Map<String, MenuSnapshot.Entry> entries = new HashMap<>();
+    private final Map<Long, MenuItem> references = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Prices carry centavos that have no exact double, so summing them as doubles drifts
+        for (int i = 0; i < 40; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId((long) i + 1);
+            menuItem.setCode("ITEM" + i);
+            menuItem.setName("Item " + i);
+            menuItem.setCategory("COFFEE");
+            menuItem.setBasePrice(pesos(9_500 + 100 * i + 5 * (i % 20)));
+            menuItem.getSizePriceAdjustments().put("SMALL", pesos(-1_015));
+            menuItem.getSizePriceAdjustments().put("LARGE", pesos(2_035 + 10 * (i % 7)));
+            for (int c = 0; c < CUSTOMIZATIONS.length; c++) {
+                menuItem.getCustomizationPriceAdjustments().put(CUSTOMIZATIONS[c], pesos(1_535 + 510 * c));
+            }
+            menuItems.put(menuItem.getCode(), menuItem);
+            entries.put(menuItem.getCode(), MenuSnapshot.Entry.of(menuItem));
+            references.put(menuItem.getId(), menuItem);
+        }
+    }
+
+    @Test
+    void linesArePricedToTheExactCentavo() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000; i++) {
+            TransactionRequest.TransactionItemRequest line = randomLine(random);
+            MenuItem menuItem = menuItems.get(line.getItemCode());
+
+            OrderItem item = transactionService.createOrderItem(
+                line, entries.get(line.getItemCode()), menuItem, new Transaction());
+
+            assertThat(BigDecimal.valueOf(item.getUnitPrice())).isEqualByComparingTo(exactUnitPrice(line));
+        }
+    }
+
+    @Test
+    void unknownSizesAndCustomizationsKeepTheirOldPrices() {
+        TransactionRequest.TransactionItemRequest line = line("ITEM3", 1, "VENTI", List.of("EXTRA_SHOT", "GOLD_LEAF"));
+
+        OrderItem item = transactionService.createOrderItem(line, entries.get("ITEM3"), menuItems.get("ITEM3"),
+            new Transaction());
+
+        assertThat(item.getUnitPrice()).isEqualTo(113.5);
+    }
+
+    @Test
+    void cartTotalsAreExactAndMatchTheRoundedDoubleSum() {
+        Customer guest = new Customer();
+        guest.setFirstName("Guest");
+        Random random = new Random(42);
+
+        for (int cartSize : new int[] {1, 10, 100}) {
+            for (int c = 0; c < 256; c++) {
+                TransactionRequest request = new TransactionRequest();
+                request.setGuestFirstName("Ana");
+                request.setPaymentMethod(PaymentMethod.CASH);
+                request.setItems(new ArrayList<>());
+                BigDecimal exact = BigDecimal.ZERO;
+                double doubles = 0;
+                for (int l = 0; l < cartSize; l++) {
+                    TransactionRequest.TransactionItemRequest line = randomLine(random);
+                    request.getItems().add(line);
+                    exact = exact.add(exactUnitPrice(line).multiply(BigDecimal.valueOf(line.getQuantity())));
+                    doubles += doubleUnitPrice(line) * line.getQuantity();
+                }
+
+                Transaction transaction = transactionService.buildTransaction(request, guest, null, entries, references);
+
+                assertThat(BigDecimal.valueOf(transaction.getTotal())).isEqualByComparingTo(exact);
+                assertThat(Centavos.of(transaction.getTotal())).isEqualTo(Centavos.of(doubles));
+            }
+        }
+    }
+
+    // The double nearest a price in centavos, as a price read from JSON or the database would be
+    private static double pesos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2).doubleValue();
+    }
+
+    private TransactionRequest.TransactionItemRequest randomLine(Random random) {
+        List<String> customizations = new ArrayList<>();
+        for (int c = random.nextInt(4); c > 0; c--) {
+            customizations.add(CUSTOMIZATIONS[random.nextInt(CUSTOMIZATIONS.length)]);
+        }
+        return line("ITEM" + random.nextInt(menuItems.size()), 1 + random.nextInt(3),
+            SIZES[random.nextInt(SIZES.length)], customizations);
+    }
+
+    private static TransactionRequest.TransactionItemRequest line(String code, int quantity, String size,
+                                                                  List<String> customizations) {
+        TransactionRequest.TransactionItemRequest line = new TransactionRequest.TransactionItemRequest();
+        line.setItemCode(code);
+        line.setQuantity(quantity);
+        line.setSize(size);
+        line.setCustomizations(customizations);
+        return line;
+    }
+
+    private BigDecimal exactUnitPrice(TransactionRequest.TransactionItemRequest line) {
+        MenuItem menuItem = menuItems.get(line.getItemCode());
+        BigDecimal price = BigDecimal.valueOf(menuItem.getBasePrice());
+        if (line.getSize() != null && menuItem.getSizePriceAdjustments().containsKey(line.getSize())) {
+            price = price.add(BigDecimal.valueOf(menuItem.getSizePriceAdjustments().get(line.getSize())));
+        }
+        for (String customization : line.getCustomizations()) {
+            price = price.add(BigDecimal.valueOf(menuItem.getCustomizationPrice(customization)));
+        }
+        return price;
+    }
+
+    // How lines were priced before centavos
+    private double doubleUnitPrice(TransactionRequest.TransactionItemRequest line) {
+        MenuItem menuItem = menuItems.get(line.getItemCode());
+        double price = menuItem.getPriceForSize(line.getSize());
+        for (String customization : line.getCustomizations()) {
+            price += menuItem.getCustomizationPrice(customization);
+        }
+        return price;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.dto.TransactionRequest;
+import com.hellweek.coffee.dto.TransactionRequest.TransactionItemRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingItemsServiceTest {
+    private static final double EPSILON = 0.05;
+
+    @Test
+    void mergedMinutesKeepEveryCountWithinTheReportedError() {
+        // Names are only decoration here, so the menu stays empty
+        MenuSnapshotService menu = new MenuSnapshotService(null, null) {
+            @Override
+            public MenuSnapshot current() {
+                return MenuSnapshot.EMPTY;
+            }
+        };
+        TrendingItemsService service = new TrendingItemsService(menu, Duration.ofMinutes(60), EPSILON);
+        Map<String, Long> truth = new HashMap<>();
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3_000; i++) {
+            String code = "ITEM" + (int) Math.floor(Math.pow(200, random.nextDouble()));
+            int quantity = 1 + random.nextInt(3);
+            service.recordOrder(order(code, quantity), now.minusMinutes(i % 10));
+            truth.merge(code, (long) quantity, Long::sum);
+        }
+
+        int capacity = (int) Math.ceil(1 / EPSILON);
+        TrendingItemsService.Trending trending = service.getTrending(60, capacity);
+
+        long units = truth.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(trending.getOrders()).isEqualTo(3_000);
+        assertThat(trending.getUnits()).isEqualTo(units);
+        assertThat(trending.getItemsMaxError()).isLessThanOrEqualTo((long) (EPSILON * units));
+        assertThat(trending.getItems()).hasSize(capacity);
+        for (TrendingItemsService.Entry entry : trending.getItems()) {
+            long actual = truth.get(entry.getItemCode());
+            assertThat(entry.getMinCount()).as(entry.getItemCode()).isLessThanOrEqualTo(actual);
+            assertThat(entry.getCount()).as(entry.getItemCode()).isGreaterThanOrEqualTo(actual);
+            assertThat(entry.getCount() - actual).as(entry.getItemCode()).isLessThanOrEqualTo(trending.getItemsMaxError());
+        }
+        // The heaviest item is far above the error, so it leads the list
+        String heaviest = truth.entrySet().stream().max(Map.Entry.comparingByValue()).orElseThrow().getKey();
+        assertThat(trending.getItems().get(0).getItemCode()).isEqualTo(heaviest);
+    }
+
+    private static TransactionRequest order(String code, int quantity) {
+        TransactionItemRequest line = new TransactionItemRequest();
+        line.setItemCode(code);
+        line.setQuantity(quantity);
+        line.setSize("MEDIUM");
+        TransactionRequest request = new TransactionRequest();
+        request.setItems(List.of(line));
+        return request;
+    }
+}
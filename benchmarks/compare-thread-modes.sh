@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Runs the checkout load against the app twice, once on the default Tomcat
+# platform-thread pool and once with the virtual-threads profile, and keeps
+# both result sets side by side under loadgen-results/.
+#
+# Build first with a Java 21 JDK:
+#   (cd ../backend && mvn -Pjava21 install -DskipTests) && mvn package
+#
+# Usage: ./compare-thread-modes.sh [extra load generator options, e.g. --mix=...]
+set -euo pipefail
+
+cd "$(dirname "$0")"
+APP_JAR=../backend/target/coffee-0.0.1-SNAPSHOT-exec.jar
+CLIENTS=${CLIENTS:-256}
+DURATION=${DURATION:-60}
+PORT=${PORT:-8080}
+LOGIN=${LOGIN:-admin:admin123}
+
+run_mode() {
+    local mode=$1 profile=$2
+    shift 2
+    java -jar "$APP_JAR" \
+        --server.port="$PORT" \
+        --spring.profiles.active="$profile" \
+        --spring.datasource.url=jdbc:h2:mem:loadtest \
+        --spring.jpa.show-sql=false \
+        --spring.jpa.defer-datasource-initialization=true \
+        --spring.sql.init.mode=always \
+        --spring.sql.init.data-locations=file:loadgen-seed.sql \
+        > "app-$mode.log" 2>&1 &
+    local app=$!
+    trap 'kill $app 2>/dev/null' RETURN
+
+    until curl -s -o /dev/null "http://localhost:$PORT/api/auth/login"; do
+        kill -0 $app 2>/dev/null || { echo "App failed to start, see app-$mode.log"; exit 1; }
+        sleep 1
+    done
+
+    echo "== $mode =="
+    java -cp target/benchmarks.jar com.hellweek.coffee.loadgen.RushHourLoadGenerator \
+        --base-url="http://localhost:$PORT" \
+        --registers="$CLIENTS" --duration="$DURATION" --warmup=15 \
+        --think-time-ms=0 --mix=create:100 --login="$LOGIN" \
+        --output="loadgen-results/$mode" "$@"
+}
+
+run_mode platform default "$@"
+run_mode virtual virtual-threads "$@"
@@ -0,0 +1,93 @@
+-- Seed data for the rush-hour load generator (H2).
+-- Safe to run repeatedly; rows are merged on their natural keys.
+
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-ESPRESSO', 'Espresso', 'COFFEE', 90, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-AMERICANO', 'Americano', 'COFFEE', 110, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-LATTE', 'Cafe Latte', 'COFFEE', 140, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-CAPPUCCINO', 'Cappuccino', 'COFFEE', 140, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-MOCHA', 'Cafe Mocha', 'COFFEE', 155, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-CARAMEL', 'Caramel Macchiato', 'COFFEE', 165, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-MATCHA', 'Matcha Latte', 'NON_COFFEE', 160, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-CHOCO', 'Hot Chocolate', 'NON_COFFEE', 130, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-CROISSANT', 'Butter Croissant', 'PASTRY', 95, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-MUFFIN', 'Blueberry Muffin', 'PASTRY', 85, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-BAGEL', 'Cream Cheese Bagel', 'PASTRY', 120, TRUE);
+MERGE INTO menu_items (code, name, category, base_price, available) KEY(code) VALUES ('LG-SANDWICH', 'Ham and Cheese Sandwich', 'FOOD', 180, TRUE);
+
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-ESPRESSO'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-AMERICANO'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-LATTE'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CAPPUCCINO'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MOCHA'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CARAMEL'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-MATCHA'), 'LESS_ICE', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'SMALL', 0);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'MEDIUM', 20);
+MERGE INTO menu_item_sizes (menu_item_id, size, price_adjustment) KEY(menu_item_id, size) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'LARGE', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'EXTRA_SHOT', 35);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'OAT_MILK', 30);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'VANILLA_SYRUP', 25);
+MERGE INTO menu_item_customizations (menu_item_id, customization, price_adjustment) KEY(menu_item_id, customization) VALUES ((SELECT id FROM menu_items WHERE code = 'LG-CHOCO'), 'LESS_ICE', 0);
+
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG001', 'Load', 'Member01', 'lg001@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG002', 'Load', 'Member02', 'lg002@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG003', 'Load', 'Member03', 'lg003@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG004', 'Load', 'Member04', 'lg004@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG005', 'Load', 'Member05', 'lg005@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG006', 'Load', 'Member06', 'lg006@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG007', 'Load', 'Member07', 'lg007@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG008', 'Load', 'Member08', 'lg008@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG009', 'Load', 'Member09', 'lg009@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG010', 'Load', 'Member10', 'lg010@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG011', 'Load', 'Member11', 'lg011@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG012', 'Load', 'Member12', 'lg012@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG013', 'Load', 'Member13', 'lg013@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG014', 'Load', 'Member14', 'lg014@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG015', 'Load', 'Member15', 'lg015@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG016', 'Load', 'Member16', 'lg016@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG017', 'Load', 'Member17', 'lg017@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG018', 'Load', 'Member18', 'lg018@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG019', 'Load', 'Member19', 'lg019@example.com', TRUE, CURRENT_TIMESTAMP);
+MERGE INTO customers (membership_id, first_name, last_name, email, is_member, created_at) KEY(membership_id) VALUES ('LG020', 'Load', 'Member20', 'lg020@example.com', TRUE, CURRENT_TIMESTAMP);
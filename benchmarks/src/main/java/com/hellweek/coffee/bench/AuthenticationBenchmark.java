@@ -0,0 +1,66 @@
+package com.hellweek.coffee.bench;
+
+import com.hellweek.coffee.dto.LoginRequest;
+import com.hellweek.coffee.model.User;
+import com.hellweek.coffee.repository.UserRepository;
+import com.hellweek.coffee.service.AuthService;
+import com.hellweek.coffee.service.SessionTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second one core can authenticate: by credentials, which is a
+ * user lookup and a BCrypt match at the app's default strength, vs by a
+ * session token from {@code /api/auth/login}. The user lookup is stubbed, so
+ * the credentials figure is an upper bound.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+    private AuthService authService;
+    private SessionTokenService sessionTokenService;
+    private LoginRequest credentials;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("cashier");
+        user.setPassword(passwordEncoder.encode("secret"));
+        user.setFirstName("Cashier");
+        user.setRole(User.Role.CASHIER);
+
+        UserRepository userRepository = Stubs.of(UserRepository.class,
+            Map.of("findByUsername", args -> Optional.of(user)));
+        sessionTokenService = new SessionTokenService(Duration.ofHours(12));
+        authService = new AuthService(userRepository, passwordEncoder, sessionTokenService);
+
+        credentials = new LoginRequest();
+        credentials.setUsername("cashier");
+        credentials.setPassword("secret");
+        authorization = "Bearer " + sessionTokenService.issue(user, sessionTokenService.generation()).getToken();
+    }
+
+    @Benchmark
+    public User credentials() {
+        return authService.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Authentication token() {
+        // A fresh string per request, as the filter cuts from the header
+        return sessionTokenService.authenticate(authorization.substring(7));
+    }
+}
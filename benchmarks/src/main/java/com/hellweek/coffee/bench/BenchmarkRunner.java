@@ -0,0 +1,41 @@
+package com.hellweek.coffee.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * JMH entry point that writes JSON results by default, so runs from
+ * different releases can be diffed. Every standard JMH flag still applies;
+ * -rf and -rff override the defaults.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.result("jmh-result-" + stamp + ".json");
+        }
+
+        Runner runner = new Runner(options.build());
+        if (cli.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hellweek.coffee.bench;
+
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.model.OrderItem;
+import com.hellweek.coffee.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderModelBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CustomizedLines {
+        @Param({"0", "2", "5"})
+        public int customizations;
+
+        OrderItem line;
+        OrderItem sameLine;
+        OrderItem reorderedLine;
+
+        @Setup
+        public void setUp() {
+            MenuItem menuItem = SyntheticData.menu(1).get(0);
+            line = new OrderItem();
+            sameLine = new OrderItem();
+            reorderedLine = new OrderItem();
+            for (OrderItem item : List.of(line, sameLine, reorderedLine)) {
+                item.setMenuItem(menuItem);
+                item.setSize("LARGE");
+            }
+            for (int c = 0; c < customizations; c++) {
+                String customization = SyntheticData.CUSTOMIZATIONS[c % SyntheticData.CUSTOMIZATIONS.length];
+                line.addCustomization(customization);
+                sameLine.addCustomization(customization);
+            }
+            for (int c = customizations - 1; c >= 0; c--) {
+                reorderedLine.addCustomization(SyntheticData.CUSTOMIZATIONS[c % SyntheticData.CUSTOMIZATIONS.length]);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Cart {
+        @Param({"1", "10", "100", "1000"})
+        public int cartSize;
+
+        Transaction transaction;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            List<MenuItem> menu = SyntheticData.menu(40);
+            transaction = new Transaction();
+            for (int i = 0; i < cartSize; i++) {
+                transaction.addItem(SyntheticData.orderItem(menu.get(random.nextInt(menu.size())), random, 2));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean hasSameCustomizations(CustomizedLines lines) {
+        return lines.line.hasSameCustomizations(lines.sameLine);
+    }
+
+    @Benchmark
+    public boolean hasSameCustomizationsReordered(CustomizedLines lines) {
+        return lines.line.hasSameCustomizations(lines.reorderedLine);
+    }
+
+    @Benchmark
+    public double recalculateTotal(Cart cart) {
+        cart.transaction.recalculateTotal();
+        return cart.transaction.getTotal();
+    }
+}
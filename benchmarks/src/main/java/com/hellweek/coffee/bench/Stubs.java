@@ -0,0 +1,30 @@
+package com.hellweek.coffee.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Minimal interface stubs for repositories, answering only the methods a
+ * benchmark needs so no database or Spring context is involved.
+ */
+public final class Stubs {
+    private Stubs() {
+    }
+
+    public static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return type.getSimpleName() + " stub";
+                default: throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+        });
+        return type.cast(stub);
+    }
+}
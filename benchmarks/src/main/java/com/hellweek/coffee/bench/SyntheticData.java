@@ -0,0 +1,106 @@
+package com.hellweek.coffee.bench;
+
+import com.hellweek.coffee.dto.TransactionRequest;
+import com.hellweek.coffee.model.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic menus, order lines and completed transactions for benchmarks.
+ * Transactions are spread at {@value #TRANSACTIONS_PER_DAY} per day between
+ * 07:00 and 21:00 starting {@link #START}.
+ */
+public final class SyntheticData {
+    public static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    public static final int TRANSACTIONS_PER_DAY = 500;
+    public static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE"};
+    public static final String[] CUSTOMIZATIONS = {"EXTRA_SHOT", "OAT_MILK", "VANILLA_SYRUP", "WHIPPED_CREAM", "LESS_ICE"};
+
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+
+    private SyntheticData() {
+    }
+
+    public static List<MenuItem> menu(int size) {
+        List<MenuItem> menu = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId((long) i + 1);
+            menuItem.setCode(String.format("M%03d", i + 1));
+            menuItem.setName("Menu Item " + (i + 1));
+            menuItem.setCategory(i % 3 == 0 ? "FOOD" : "DRINK");
+            menuItem.setBasePrice(90 + (i % 12) * 10);
+            menuItem.getSizePriceAdjustments().put("SMALL", 0.0);
+            menuItem.getSizePriceAdjustments().put("MEDIUM", 15.0);
+            menuItem.getSizePriceAdjustments().put("LARGE", 30.0);
+            for (int c = 0; c < CUSTOMIZATIONS.length; c++) {
+                menuItem.getCustomizationPriceAdjustments().put(CUSTOMIZATIONS[c], 10.0 + c * 5);
+            }
+            menu.add(menuItem);
+        }
+        return menu;
+    }
+
+    public static TransactionRequest.TransactionItemRequest line(MenuItem menuItem, Random random, int customizations) {
+        TransactionRequest.TransactionItemRequest line = new TransactionRequest.TransactionItemRequest();
+        line.setItemCode(menuItem.getCode());
+        line.setQuantity(1 + random.nextInt(3));
+        line.setSize(SIZES[random.nextInt(SIZES.length)]);
+        List<String> selected = new ArrayList<>(customizations);
+        for (int c = 0; c < customizations; c++) {
+            selected.add(CUSTOMIZATIONS[(c + random.nextInt(CUSTOMIZATIONS.length)) % CUSTOMIZATIONS.length]);
+        }
+        line.setCustomizations(selected);
+        return line;
+    }
+
+    public static OrderItem orderItem(MenuItem menuItem, Random random, int customizations) {
+        OrderItem item = new OrderItem();
+        item.setMenuItem(menuItem);
+        item.setQuantity(1 + random.nextInt(3));
+        item.setSize(SIZES[random.nextInt(SIZES.length)]);
+        double unitPrice = menuItem.getPriceForSize(item.getSize());
+        for (int c = 0; c < customizations; c++) {
+            String customization = CUSTOMIZATIONS[(c + random.nextInt(CUSTOMIZATIONS.length)) % CUSTOMIZATIONS.length];
+            item.addCustomization(customization);
+            unitPrice += menuItem.getCustomizationPrice(customization);
+        }
+        item.setUnitPrice(unitPrice);
+        return item;
+    }
+
+    /**
+     * Completed transactions for a single member, oldest first, each with one
+     * to five lines.
+     */
+    public static List<Transaction> transactions(List<MenuItem> menu, int count, long seed) {
+        Random random = new Random(seed);
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName("Bench");
+        customer.setMember(true);
+
+        long secondsPerTransaction = 14 * 3600 / TRANSACTIONS_PER_DAY;
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setCustomer(customer);
+            transaction.setPaymentMethod(PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+            transaction.setTransactionDate(START
+                .plusDays(i / TRANSACTIONS_PER_DAY)
+                .plusHours(7)
+                .plusSeconds((i % TRANSACTIONS_PER_DAY) * secondsPerTransaction));
+            int lines = 1 + random.nextInt(5);
+            for (int l = 0; l < lines; l++) {
+                transaction.addItem(orderItem(menu.get(random.nextInt(menu.size())), random, random.nextInt(3)));
+            }
+            transaction.setCompleted(true);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hellweek.coffee.loadgen;
+
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of {@link RushHourLoadGenerator}, given as
+ * {@code --name=value}. Defaults match the data in loadgen-seed.sql.
+ */
+@Data
+public class LoadGeneratorOptions {
+    private String baseUrl = "http://localhost:8080";
+    private int registers = 24;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 10;
+    private int thinkTimeMillis = 500;
+    private double guestRatio = 0.7;
+    private int minLines = 1;
+    private int maxLines = 5;
+    private Map<Action, Integer> mix = defaultMix();
+    private List<String> itemCodes = Arrays.asList(
+        "LG-ESPRESSO", "LG-AMERICANO", "LG-LATTE", "LG-CAPPUCCINO", "LG-MOCHA", "LG-CARAMEL",
+        "LG-MATCHA", "LG-CHOCO", "LG-CROISSANT", "LG-MUFFIN", "LG-BAGEL", "LG-SANDWICH");
+    private List<String> drinkCodes = Arrays.asList(
+        "LG-ESPRESSO", "LG-AMERICANO", "LG-LATTE", "LG-CAPPUCCINO", "LG-MOCHA", "LG-CARAMEL",
+        "LG-MATCHA", "LG-CHOCO");
+    private List<String> membershipIds = seededMembers();
+    private String authorization;
+    private String login;
+    private String outputDir = "loadgen-results";
+
+    public enum Action {
+        CREATE,
+        COMPLETE,
+        PENDING,
+        MENU
+    }
+
+    public static LoadGeneratorOptions parse(String[] args) {
+        LoadGeneratorOptions options = new LoadGeneratorOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url": options.setBaseUrl(value); break;
+                case "registers": options.setRegisters(Integer.parseInt(value)); break;
+                case "duration": options.setDurationSeconds(Integer.parseInt(value)); break;
+                case "warmup": options.setWarmupSeconds(Integer.parseInt(value)); break;
+                case "think-time-ms": options.setThinkTimeMillis(Integer.parseInt(value)); break;
+                case "guest-ratio": options.setGuestRatio(Double.parseDouble(value)); break;
+                case "lines":
+                    String[] bounds = value.split("-");
+                    options.setMinLines(Integer.parseInt(bounds[0]));
+                    options.setMaxLines(Integer.parseInt(bounds[bounds.length - 1]));
+                    break;
+                case "mix": options.setMix(parseMix(value)); break;
+                case "items": options.setItemCodes(Arrays.asList(value.split(","))); break;
+                case "drinks": options.setDrinkCodes(Arrays.asList(value.split(","))); break;
+                case "members": options.setMembershipIds(Arrays.asList(value.split(","))); break;
+                case "auth": options.setAuthorization(value); break;
+                case "login": options.setLogin(value); break;
+                case "output": options.setOutputDir(value); break;
+                default: throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return options;
+    }
+
+    // e.g. create:60,complete:25,pending:10,menu:5
+    private static Map<Action, Integer> parseMix(String value) {
+        Map<Action, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Action.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Action, Integer> defaultMix() {
+        Map<Action, Integer> mix = new LinkedHashMap<>();
+        mix.put(Action.CREATE, 50);
+        mix.put(Action.COMPLETE, 30);
+        mix.put(Action.PENDING, 15);
+        mix.put(Action.MENU, 5);
+        return mix;
+    }
+
+    private static List<String> seededMembers() {
+        String[] members = new String[20];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = String.format("LG%03d", i + 1);
+        }
+        return Arrays.asList(members);
+    }
+}
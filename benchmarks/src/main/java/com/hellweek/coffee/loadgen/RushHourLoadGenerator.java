@@ -0,0 +1,309 @@
+package com.hellweek.coffee.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellweek.coffee.loadgen.LoadGeneratorOptions.Action;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulates a rush-hour morning: each register is a closed loop that creates
+ * orders, completes its own earlier orders, polls the pending list and
+ * refreshes the menu, pausing for an exponentially distributed think time
+ * between calls. Latencies recorded after the warmup are reported per
+ * endpoint as HdrHistogram percentile distributions.
+ *
+ * <p>Start the app with the seed data, then run e.g.
+ * {@code java -cp target/benchmarks.jar com.hellweek.coffee.loadgen.RushHourLoadGenerator --registers=48 --duration=120}.
+ */
+public class RushHourLoadGenerator {
+    private static final Map<Action, String> ENDPOINTS = new EnumMap<>(Map.of(
+        Action.CREATE, "POST /api/transactions",
+        Action.COMPLETE, "POST /api/transactions/{id}/complete",
+        Action.PENDING, "GET /api/transactions/pending",
+        Action.MENU, "GET /api/items"
+    ));
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE"};
+    private static final String[] CUSTOMIZATIONS = {"EXTRA_SHOT", "OAT_MILK", "VANILLA_SYRUP", "LESS_ICE"};
+    private static final String[] PAYMENT_METHODS = {"CASH", "CREDIT_CARD", "DEBIT_CARD", "GCASH", "MAYA"};
+
+    private final LoadGeneratorOptions options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Action, Recorder> recorders = new EnumMap<>(Action.class);
+    private final Map<Action, Map<Integer, LongAdder>> statuses = new EnumMap<>(Action.class);
+    private final Action[] weightedActions;
+    private String authorization;
+
+    public RushHourLoadGenerator(LoadGeneratorOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        for (Action action : Action.values()) {
+            recorders.put(action, new Recorder(TimeUnit.MINUTES.toMicros(1), 3));
+            statuses.put(action, new ConcurrentHashMap<>());
+        }
+
+        List<Action> weighted = new ArrayList<>();
+        options.getMix().forEach((action, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(action);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Order mix must have at least one positive weight");
+        }
+        this.weightedActions = weighted.toArray(new Action[0]);
+        this.authorization = options.getAuthorization();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new RushHourLoadGenerator(LoadGeneratorOptions.parse(args)).run();
+    }
+
+    public void run() throws InterruptedException, IOException {
+        if (options.getLogin() != null) {
+            login();
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        System.out.printf("%d registers against %s: %ds warmup, %ds measured%n",
+            options.getRegisters(), options.getBaseUrl(), options.getWarmupSeconds(), options.getDurationSeconds());
+
+        ExecutorService registers = Executors.newFixedThreadPool(options.getRegisters());
+        for (int i = 0; i < options.getRegisters(); i++) {
+            registers.submit(() -> runRegister(measureFrom, end));
+        }
+        registers.shutdown();
+        registers.awaitTermination(options.getWarmupSeconds() + options.getDurationSeconds() + 60L, TimeUnit.SECONDS);
+
+        report();
+    }
+
+    // Every register shares one session token, the way a signed-in till would reuse it
+    private void login() throws IOException, InterruptedException {
+        int separator = options.getLogin().indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected --login=username:password");
+        }
+        Map<String, String> credentials = Map.of(
+            "username", options.getLogin().substring(0, separator),
+            "password", options.getLogin().substring(separator + 1));
+        HttpResponse<String> response = client.send(
+            post("/api/auth/login", objectMapper.writeValueAsString(credentials)),
+            HttpResponse.BodyHandlers.ofString());
+        JsonNode token = response.statusCode() == 200 ? objectMapper.readTree(response.body()).get("token") : null;
+        if (token == null) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        authorization = "Bearer " + token.asText();
+    }
+
+    private void runRegister(long measureFrom, long end) {
+        Random random = ThreadLocalRandom.current();
+        Deque<Long> openOrders = new ArrayDeque<>();
+        String menuEtag = null;
+        while (System.nanoTime() < end) {
+            Action action = weightedActions[random.nextInt(weightedActions.length)];
+            if (action == Action.COMPLETE && openOrders.isEmpty()) {
+                action = Action.CREATE;
+            }
+
+            switch (action) {
+                case CREATE:
+                    HttpResponse<String> created = send(action, post("/api/transactions", orderBody(random)), measureFrom);
+                    Long id = transactionId(created);
+                    if (id != null) {
+                        openOrders.addLast(id);
+                    }
+                    break;
+                case COMPLETE:
+                    send(action, post("/api/transactions/" + openOrders.removeFirst() + "/complete", ""), measureFrom);
+                    break;
+                case PENDING:
+                    send(action, get("/api/transactions/pending"), measureFrom);
+                    break;
+                case MENU:
+                    HttpResponse<String> menu = send(action, getMenu(menuEtag), measureFrom);
+                    if (menu != null && menu.statusCode() == 200) {
+                        menuEtag = menu.headers().firstValue("ETag").orElse(null);
+                    }
+                    break;
+            }
+            think(random);
+        }
+    }
+
+    private HttpResponse<String> send(Action action, HttpRequest request, long measureFrom) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        int status;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        if (start >= measureFrom) {
+            recorders.get(action).recordValue(Math.min(elapsedMicros, TimeUnit.MINUTES.toMicros(1)));
+            statuses.get(action).computeIfAbsent(status, code -> new LongAdder()).increment();
+        }
+        return response;
+    }
+
+    private Long transactionId(HttpResponse<String> response) {
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            return id == null ? null : id.asLong();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String orderBody(Random random) {
+        Map<String, Object> order = new LinkedHashMap<>();
+        if (random.nextDouble() < options.getGuestRatio() || options.getMembershipIds().isEmpty()) {
+            order.put("guestFirstName", "Guest" + random.nextInt(10_000));
+        } else {
+            order.put("membershipId", pick(random, options.getMembershipIds()));
+        }
+        order.put("paymentMethod", PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+
+        int lines = options.getMinLines() + random.nextInt(options.getMaxLines() - options.getMinLines() + 1);
+        List<Map<String, Object>> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            String code = pick(random, options.getItemCodes());
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("itemCode", code);
+            line.put("quantity", 1 + random.nextInt(2));
+            if (options.getDrinkCodes().contains(code)) {
+                line.put("size", SIZES[random.nextInt(SIZES.length)]);
+                List<String> customizations = new ArrayList<>();
+                for (int c = random.nextInt(3); c > 0; c--) {
+                    customizations.add(CUSTOMIZATIONS[random.nextInt(CUSTOMIZATIONS.length)]);
+                }
+                line.put("customizations", customizations);
+            }
+            items.add(line);
+        }
+        order.put("items", items);
+
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return request(path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    // Revalidates the menu the register already holds, as the POS does
+    private HttpRequest getMenu(String etag) {
+        HttpRequest.Builder builder = request("/api/items").GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.getBaseUrl() + path))
+            .timeout(Duration.ofSeconds(30));
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private void think(Random random) {
+        if (options.getThinkTimeMillis() <= 0) {
+            return;
+        }
+        long pause = (long) (-Math.log(1 - random.nextDouble()) * options.getThinkTimeMillis());
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private void report() throws IOException {
+        Path outputDir = Path.of(options.getOutputDir());
+        Files.createDirectories(outputDir);
+
+        System.out.printf("%n%-38s %9s %9s %10s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "failed", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Action action : Action.values()) {
+            Histogram histogram = recorders.get(action).getIntervalHistogram();
+            long failures = statuses.get(action).entrySet().stream()
+                .filter(entry -> (entry.getKey() < 200 || entry.getKey() >= 300) && entry.getKey() != 304)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+
+            System.out.printf("%-38s %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                ENDPOINTS.get(action),
+                histogram.getTotalCount(),
+                failures,
+                histogram.getTotalCount() / (double) options.getDurationSeconds(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+
+            Path file = outputDir.resolve(action.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                out.println("# " + ENDPOINTS.get(action) + " (milliseconds), status counts " + statusSummary(action));
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("\nPercentile distributions written to " + outputDir.toAbsolutePath());
+    }
+
+    private Map<Integer, Long> statusSummary(Action action) {
+        Map<Integer, Long> summary = new TreeMap<>();
+        statuses.get(action).forEach((status, count) -> summary.put(status, count.sum()));
+        return summary;
+    }
+}
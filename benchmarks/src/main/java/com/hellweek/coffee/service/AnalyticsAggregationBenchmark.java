@@ -0,0 +1,116 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.bench.Stubs;
+import com.hellweek.coffee.bench.SyntheticData;
+import com.hellweek.coffee.dto.ItemSalesSummary;
+import com.hellweek.coffee.model.CustomerProfile;
+import com.hellweek.coffee.model.HourlySalesRollup;
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.model.Transaction;
+import com.hellweek.coffee.repository.HourlyItemRollupRepository;
+import com.hellweek.coffee.repository.HourlySalesRollupRepository;
+import com.hellweek.coffee.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregation steps of the analytics services over synthetic completed
+ * transactions: folding transactions into hourly rollups (rollup rebuild and
+ * verification), assembling a sales report from rollup rows, and rebuilding
+ * a customer profile from history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AnalyticsAggregationBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int transactions;
+
+    private List<Transaction> completed;
+    private TransactionAnalyticsService transactionAnalyticsService;
+    private CustomerProfileService customerProfileService;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        List<MenuItem> menu = SyntheticData.menu(40);
+        completed = SyntheticData.transactions(menu, transactions, 42);
+        end = completed.get(completed.size() - 1).getTransactionDate().plusHours(1);
+
+        SalesRollupService.Rollups rollups = new SalesRollupService.Rollups();
+        completed.forEach(rollups::add);
+
+        List<HourlySalesRollup> salesRows = new ArrayList<>();
+        rollups.getSales().forEach((key, totals) -> {
+            HourlySalesRollup row = new HourlySalesRollup();
+            row.setBucketHour(key.getBucketHour());
+            row.setPaymentMethod(key.getPaymentMethod());
+            row.setTransactionCount(totals.getCount());
+            row.setRevenueCentavos(totals.getRevenueCentavos());
+            salesRows.add(row);
+        });
+
+        Map<Long, long[]> quantities = new HashMap<>();
+        Map<Long, long[]> revenues = new HashMap<>();
+        rollups.getItems().forEach((key, totals) -> {
+            quantities.computeIfAbsent(key.getMenuItemId(), id -> new long[1])[0] += totals.getCount();
+            revenues.computeIfAbsent(key.getMenuItemId(), id -> new long[1])[0] += totals.getRevenueCentavos();
+        });
+        List<ItemSalesSummary> itemRows = new ArrayList<>();
+        for (MenuItem menuItem : menu) {
+            if (quantities.containsKey(menuItem.getId())) {
+                itemRows.add(summary(menuItem, quantities.get(menuItem.getId())[0], revenues.get(menuItem.getId())[0]));
+            }
+        }
+
+        transactionAnalyticsService = new TransactionAnalyticsService(
+            Stubs.of(HourlySalesRollupRepository.class, Map.of("findInRange", args -> salesRows)),
+            Stubs.of(HourlyItemRollupRepository.class, Map.of("summarizeItemsInRange", args -> itemRows)),
+            null,
+            null
+        );
+
+        List<Transaction> history = new ArrayList<>(completed);
+        Collections.reverse(history);
+        customerProfileService = new CustomerProfileService(
+            null,
+            null,
+            Stubs.of(TransactionRepository.class, Map.of("findCustomerTransactionHistory", args -> history)),
+            null
+        );
+    }
+
+    @Benchmark
+    public SalesRollupService.Rollups foldTransactionsIntoRollups() {
+        SalesRollupService.Rollups rollups = new SalesRollupService.Rollups();
+        for (Transaction transaction : completed) {
+            rollups.add(transaction);
+        }
+        return rollups;
+    }
+
+    @Benchmark
+    public Map<String, Object> salesReportFromRollups() {
+        return transactionAnalyticsService.generateSalesReport(SyntheticData.START, end);
+    }
+
+    @Benchmark
+    public CustomerProfile customerProfileFromHistory() {
+        return customerProfileService.recompute(1L, CustomerProfileService.TRACKED_ITEMS);
+    }
+
+    private static ItemSalesSummary summary(MenuItem menuItem, long quantity, long revenueCentavos) {
+        return new ItemSalesSummary() {
+            public Long getMenuItemId() { return menuItem.getId(); }
+            public String getName() { return menuItem.getName(); }
+            public Long getQuantity() { return quantity; }
+            public Long getRevenueCentavos() { return revenueCentavos; }
+        };
+    }
+}
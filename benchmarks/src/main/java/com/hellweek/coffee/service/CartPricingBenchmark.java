@@ -0,0 +1,87 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.bench.SyntheticData;
+import com.hellweek.coffee.dto.TransactionRequest;
+import com.hellweek.coffee.model.MenuItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices whole carts two ways: the old double arithmetic over the menu item's
+ * boxed price maps, and the centavo tables in {@link MenuSnapshot.Entry}.
+ * Menu prices carry centavos so the double path can drift; TransactionServiceTest
+ * checks that centavo totals are exact. Run with {@code -prof gc} to compare
+ * allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartPricingBenchmark {
+    private static final int CARTS = 256;
+
+    @Param({"1", "10", "100"})
+    public int cartSize;
+
+    private Map<String, MenuItem> menuItems;
+    private Map<String, MenuSnapshot.Entry> entries;
+    private List<TransactionRequest.TransactionItemRequest>[] carts;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        List<MenuItem> menu = SyntheticData.menu(40);
+        menuItems = new HashMap<>();
+        entries = new HashMap<>();
+        for (int i = 0; i < menu.size(); i++) {
+            MenuItem menuItem = menu.get(i);
+            menuItem.setBasePrice(menuItem.getBasePrice() + (i % 20) * 0.05);
+            menuItem.getCustomizationPriceAdjustments().replaceAll((name, price) -> price + 0.35);
+            menuItems.put(menuItem.getCode(), menuItem);
+            entries.put(menuItem.getCode(), MenuSnapshot.Entry.of(menuItem));
+        }
+
+        Random random = new Random(42);
+        carts = new List[CARTS];
+        for (int c = 0; c < CARTS; c++) {
+            List<TransactionRequest.TransactionItemRequest> cart = new ArrayList<>(cartSize);
+            for (int l = 0; l < cartSize; l++) {
+                cart.add(SyntheticData.line(menu.get(random.nextInt(menu.size())), random, random.nextInt(4)));
+            }
+            carts[c] = cart;
+        }
+    }
+
+    @Benchmark
+    public double doubles() {
+        double total = 0;
+        for (TransactionRequest.TransactionItemRequest line : nextCart()) {
+            MenuItem menuItem = menuItems.get(line.getItemCode());
+            double unitPrice = menuItem.getPriceForSize(line.getSize());
+            for (String customization : line.getCustomizations()) {
+                unitPrice += menuItem.getCustomizationPrice(customization);
+            }
+            total += unitPrice * line.getQuantity();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long centavos() {
+        long total = 0;
+        for (TransactionRequest.TransactionItemRequest line : nextCart()) {
+            MenuSnapshot.Entry entry = entries.get(line.getItemCode());
+            total += entry.unitPriceCentavos(line.getSize(), line.getCustomizations()) * line.getQuantity();
+        }
+        return total;
+    }
+
+    private List<TransactionRequest.TransactionItemRequest> nextCart() {
+        return carts[next++ & (CARTS - 1)];
+    }
+}
@@ -0,0 +1,60 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.bench.SyntheticData;
+import com.hellweek.coffee.dto.TransactionRequest;
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.model.OrderItem;
+import com.hellweek.coffee.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices single order lines through {@code TransactionService.createOrderItem}
+ * against snapshot entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutPricingBenchmark {
+    private static final int LINES = 1024;
+
+    @Param({"0", "3"})
+    public int customizations;
+
+    private TransactionService transactionService;
+    private TransactionRequest.TransactionItemRequest[] requests;
+    private MenuSnapshot.Entry[] entries;
+    private MenuItem[] references;
+    private Transaction transaction;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<MenuItem> menu = SyntheticData.menu(40);
+        transactionService = new TransactionService(null, null, null, null, null, null, null, null, null, null, null, null, null);
+        transaction = new Transaction();
+
+        Random random = new Random(42);
+        requests = new TransactionRequest.TransactionItemRequest[LINES];
+        entries = new MenuSnapshot.Entry[LINES];
+        references = new MenuItem[LINES];
+        for (int i = 0; i < LINES; i++) {
+            MenuItem menuItem = menu.get(random.nextInt(menu.size()));
+            requests[i] = SyntheticData.line(menuItem, random, customizations);
+            entries[i] = MenuSnapshot.Entry.of(menuItem);
+            references[i] = menuItem;
+        }
+    }
+
+    @Benchmark
+    public OrderItem createOrderItem() {
+        int i = next++ & (LINES - 1);
+        return transactionService.createOrderItem(requests[i], entries[i], references[i], transaction);
+    }
+}
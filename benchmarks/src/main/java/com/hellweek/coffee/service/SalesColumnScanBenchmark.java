@@ -0,0 +1,81 @@
+package com.hellweek.coffee.service;
+
+import com.hellweek.coffee.bench.Stubs;
+import com.hellweek.coffee.bench.SyntheticData;
+import com.hellweek.coffee.dto.SalesLineRow;
+import com.hellweek.coffee.model.MenuItem;
+import com.hellweek.coffee.model.OrderItem;
+import com.hellweek.coffee.model.PaymentMethod;
+import com.hellweek.coffee.model.Transaction;
+import com.hellweek.coffee.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter-and-aggregate slices over {@link SalesColumnStore} loaded with
+ * synthetic completed transactions of one to five lines each, over the whole
+ * range so every transaction and line is scanned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SalesColumnScanBenchmark {
+    @Param({"100000", "1000000"})
+    public int transactions;
+
+    private SalesColumnStore store;
+    private LocalDateTime end;
+    private Long menuItemId;
+
+    @Setup
+    public void setUp() {
+        List<MenuItem> menu = SyntheticData.menu(40);
+        menuItemId = menu.get(0).getId();
+        List<SalesLineRow> rows = new ArrayList<>();
+        for (Transaction transaction : SyntheticData.transactions(menu, transactions, 42)) {
+            for (OrderItem item : transaction.getItems()) {
+                rows.add(new SalesLineRow(transaction.getId(), transaction.getTransactionDate(), transaction.getTotal(),
+                    transaction.getPaymentMethod(), null, item.getMenuItem().getId(), item.getQuantity(), item.getUnitPrice()));
+            }
+            end = transaction.getTransactionDate().plusHours(1);
+        }
+
+        store = new SalesColumnStore(
+            Stubs.of(TransactionRepository.class, Map.of("streamCompletedSalesLines", args -> rows.stream())),
+            Stubs.of(PlatformTransactionManager.class, Map.of(
+                "getTransaction", args -> new SimpleTransactionStatus(),
+                "commit", args -> null))
+        );
+        store.load();
+    }
+
+    @Benchmark
+    public Map<String, Object> byHour() {
+        return store.slice(SyntheticData.START, end, SalesColumnStore.Dimension.HOUR, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> byItem() {
+        return store.slice(SyntheticData.START, end, SalesColumnStore.Dimension.ITEM, null, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> oneItemByPaymentMethod() {
+        return store.slice(SyntheticData.START, end, SalesColumnStore.Dimension.PAYMENT_METHOD, null, null, menuItemId);
+    }
+
+    @Benchmark
+    public Map<String, Object> cashByHour() {
+        return store.slice(SyntheticData.START, end, SalesColumnStore.Dimension.HOUR, PaymentMethod.CASH, null, null);
+    }
+}